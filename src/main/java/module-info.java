@@ -8,4 +8,6 @@ module net.pincette.common {
   exports net.pincette.io;
   exports net.pincette.util;
   exports net.pincette.xml;
+
+  uses net.pincette.io.CompressionCodec;
 }
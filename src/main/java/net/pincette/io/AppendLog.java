@@ -0,0 +1,259 @@
+package net.pincette.io;
+
+import static java.nio.ByteBuffer.wrap;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * An append-only log that many threads can write to at the same time. The records are put in a
+ * lock-free queue. A single writer thread takes them in batches, which are written to a {@link
+ * FileRotateOutputStream} with one gathering write. With <code>force</code> the batch is also
+ * forced to the storage device before its records are completed, which is a group commit. The
+ * file is rotated and compressed in the same way as with <code>FileRotateOutputStream</code>.
+ *
+ * <p>Each record gets a future that completes when it has been written, or forced when that is
+ * asked. When the write fails, all the futures of the batch complete exceptionally. The futures
+ * are completed on the writer thread, so dependent actions should be light or asynchronous.
+ *
+ * <p>The number of records that wait to be written is bounded. When the writers are faster than
+ * the storage device, appending blocks until there is room again.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public final class AppendLog implements AutoCloseable {
+  private static final int DEFAULT_MAX_PENDING = 0x10000;
+  private static final int MAX_BATCH = 1024;
+
+  private final ByteBuffer[] batch = new ByteBuffer[MAX_BATCH];
+  private final Entry[] entries = new Entry[MAX_BATCH];
+  private final boolean force;
+  private final FileRotateOutputStream out;
+  private final Semaphore permits;
+  private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+  private final Thread writer;
+  private volatile boolean closed;
+  private volatile boolean stopped;
+  private volatile boolean waiting;
+
+  public AppendLog(final File file, final int depth, final long size) {
+    this(file, depth, size, null, false);
+  }
+
+  /**
+   * Creates the log and starts its writer thread.
+   *
+   * @param file the file to write to.
+   * @param depth the number of compressed generations that are kept.
+   * @param size the maximum size of the file.
+   * @param interval the maximum time the file is written to. It may be <code>null</code>.
+   * @param force when set each batch is forced to the storage device.
+   */
+  public AppendLog(
+      final File file,
+      final int depth,
+      final long size,
+      final Duration interval,
+      final boolean force) {
+    this(file, depth, size, interval, force, DEFAULT_MAX_PENDING);
+  }
+
+  /**
+   * Creates the log and starts its writer thread.
+   *
+   * @param file the file to write to.
+   * @param depth the number of compressed generations that are kept.
+   * @param size the maximum size of the file.
+   * @param interval the maximum time the file is written to. It may be <code>null</code>.
+   * @param force when set each batch is forced to the storage device.
+   * @param maxPending the maximum number of records that wait to be written.
+   * @throws IllegalArgumentException when <code>maxPending</code> is not positive.
+   */
+  public AppendLog(
+      final File file,
+      final int depth,
+      final long size,
+      final Duration interval,
+      final boolean force,
+      final int maxPending) {
+    if (maxPending <= 0) {
+      throw new IllegalArgumentException("The maximum of pending records should be positive.");
+    }
+
+    this.force = force;
+    permits = new Semaphore(maxPending);
+    out = new FileRotateOutputStream(file, depth, size, interval);
+    writer = Thread.ofPlatform().daemon().name("append-log-" + file.getName()).start(this::run);
+  }
+
+  /**
+   * Appends a record. The array should not be changed until the returned future completes. This
+   * blocks while the maximum number of records is pending.
+   *
+   * @param record the record.
+   * @return The future that completes when the record has been written.
+   */
+  public CompletableFuture<Void> append(final byte[] record) {
+    return append(wrap(record));
+  }
+
+  /**
+   * Appends the remaining bytes of a buffer. The buffer should not be touched until the returned
+   * future completes. This blocks while the maximum number of records is pending. When the
+   * calling thread is interrupted while it waits, the returned future completes exceptionally and
+   * the interrupt status is restored.
+   *
+   * @param record the record.
+   * @return The future that completes when the record has been written.
+   */
+  public CompletableFuture<Void> append(final ByteBuffer record) {
+    if (!isOpen()) {
+      return failedFuture(new IOException("The log is closed."));
+    }
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      return failedFuture(new InterruptedIOException("Interrupted while waiting for room."));
+    }
+
+    final Entry entry = new Entry(record, new CompletableFuture<>());
+
+    queue.offer(entry);
+
+    if (!isOpen() && queue.remove(entry)) {
+      // The writer may have finished before the entry was added.
+      permits.release();
+      entry.done.completeExceptionally(new IOException("The log is closed."));
+    } else if (waiting) {
+      unpark(writer);
+    }
+
+    return entry.done;
+  }
+
+  /**
+   * Writes the pending records, stops the writer thread and closes the file. When the calling
+   * thread is interrupted while it waits for the writer thread, the file is closed right away and
+   * the interrupt status is restored.
+   *
+   * @throws IOException when the file can't be closed.
+   */
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      unpark(writer);
+
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  private void complete(final int length, final Exception exception) {
+    for (int i = 0; i < length; ++i) {
+      if (exception != null) {
+        entries[i].done.completeExceptionally(exception);
+      } else {
+        entries[i].done.complete(null);
+      }
+
+      batch[i] = null;
+      entries[i] = null;
+    }
+
+    permits.release(length);
+  }
+
+  /** Completes the records that will never be written, because the writer thread stops. */
+  private void failPending() {
+    final IOException exception = new IOException("The log writer has stopped.");
+    Entry entry;
+
+    for (int i = 0; i < MAX_BATCH; ++i) {
+      if (entries[i] != null) {
+        entries[i].done.completeExceptionally(exception);
+        batch[i] = null;
+        entries[i] = null;
+        permits.release();
+      }
+    }
+
+    while ((entry = queue.poll()) != null) {
+      entry.done.completeExceptionally(exception);
+      permits.release();
+    }
+  }
+
+  private boolean isOpen() {
+    return !closed && !stopped;
+  }
+
+  private void run() {
+    try {
+      while (!closed || !queue.isEmpty()) {
+        final int length = take();
+
+        if (length > 0) {
+          write(length);
+        } else {
+          waiting = true;
+
+          if (queue.isEmpty() && !closed) {
+            park(this);
+          }
+
+          waiting = false;
+        }
+      }
+    } finally {
+      stopped = true;
+      failPending();
+    }
+  }
+
+  private int take() {
+    int length = 0;
+    Entry entry;
+
+    while (length < MAX_BATCH && (entry = queue.poll()) != null) {
+      batch[length] = entry.record;
+      entries[length++] = entry;
+    }
+
+    return length;
+  }
+
+  private void write(final int length) {
+    try {
+      out.write(batch, length);
+
+      if (force) {
+        out.force();
+      }
+
+      complete(length, null);
+    } catch (Exception e) {
+      complete(length, e);
+    }
+  }
+
+  private record Entry(ByteBuffer record, CompletableFuture<Void> done) {}
+}
@@ -0,0 +1,317 @@
+package net.pincette.io;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import net.pincette.function.BiConsumerWithException;
+import net.pincette.function.FunctionWithException;
+import net.pincette.function.RunnableWithException;
+
+/**
+ * Copies asynchronously on virtual threads, so thousands of copies can run at the same time without
+ * a platform thread for each of them. Stream copies use two buffers. One virtual thread fills a
+ * buffer while another one writes the other buffer, so reading and writing overlap.
+ *
+ * <p>A copy is cancelled with <code>toCompletableFuture().cancel(true)</code> on the returned
+ * stage. It then stops after the chunk it is working on. The streams or files are always closed
+ * at the end. The output is flushed only once.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class AsyncConnector {
+  private static final int BUFFER_SIZE = 0x10000;
+  private static final long FILE_CHUNK = 0x800000L;
+  private static final long REPORT_INTERVAL = 250_000_000L;
+
+  private AsyncConnector() {}
+
+  /**
+   * Copies <code>in</code> to <code>out</code> and closes them.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @return The number of copied bytes.
+   */
+  public static CompletionStage<Long> copy(final InputStream in, final OutputStream out) {
+    return copy(in, out, null);
+  }
+
+  /**
+   * Copies <code>in</code> to <code>out</code> and closes them.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @param progress the progress callback. It may be <code>null</code>.
+   * @return The number of copied bytes.
+   */
+  public static CompletionStage<Long> copy(
+      final InputStream in, final OutputStream out, final Progress progress) {
+    return copy(
+        () -> new byte[BUFFER_SIZE],
+        in::read,
+        (b, l) -> out.write(b, 0, l),
+        () -> {
+          try (in;
+              out) {
+            out.flush();
+          }
+        },
+        progress);
+  }
+
+  /**
+   * Copies <code>in</code> to <code>out</code> and closes them.
+   *
+   * @param in the consumed reader.
+   * @param out the writer to which the data is written.
+   * @return The number of copied characters.
+   */
+  public static CompletionStage<Long> copy(final Reader in, final Writer out) {
+    return copy(in, out, null);
+  }
+
+  /**
+   * Copies <code>in</code> to <code>out</code> and closes them. The progress is in characters.
+   *
+   * @param in the consumed reader.
+   * @param out the writer to which the data is written.
+   * @param progress the progress callback. It may be <code>null</code>.
+   * @return The number of copied characters.
+   */
+  public static CompletionStage<Long> copy(
+      final Reader in, final Writer out, final Progress progress) {
+    return copy(
+        () -> new char[BUFFER_SIZE],
+        in::read,
+        (b, l) -> out.write(b, 0, l),
+        () -> {
+          try (in;
+              out) {
+            out.flush();
+          }
+        },
+        progress);
+  }
+
+  /**
+   * Copies the file <code>from</code> to <code>to</code>, which is created or truncated.
+   *
+   * @param from the source file.
+   * @param to the destination file.
+   * @return The number of copied bytes.
+   */
+  public static CompletionStage<Long> copy(final Path from, final Path to) {
+    return copy(from, to, null);
+  }
+
+  /**
+   * Copies the file <code>from</code> to <code>to</code>, which is created or truncated. The
+   * operating system does the copying in chunks of 8MB, between which the progress is reported.
+   * The copy stops at the size the source had at the start, or earlier when it shrinks.
+   *
+   * @param from the source file.
+   * @param to the destination file.
+   * @param progress the progress callback. It may be <code>null</code>.
+   * @return The number of copied bytes.
+   */
+  public static CompletionStage<Long> copy(
+      final Path from, final Path to, final Progress progress) {
+    final CompletableFuture<Long> result = new CompletableFuture<>();
+    final Thread thread =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  final Reporter reporter = new Reporter(progress);
+                  long position = 0;
+
+                  try (FileChannel in = FileChannel.open(from);
+                      FileChannel out = FileChannel.open(to, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                    final long size = in.size();
+                    long transferred = 1;
+
+                    while (position < size && transferred > 0 && !result.isDone()) {
+                      transferred = in.transferTo(position, min(FILE_CHUNK, size - position), out);
+                      position += transferred;
+                      reporter.report(position, false);
+                    }
+                  } catch (Exception e) {
+                    result.completeExceptionally(e);
+                  }
+
+                  complete(result, position, reporter);
+                });
+
+    return interruptOnCancel(result, thread);
+  }
+
+  private static <B> CompletionStage<Long> copy(
+      final Supplier<B> newBuffer,
+      final FunctionWithException<B, Integer> read,
+      final BiConsumerWithException<B, Integer> write,
+      final RunnableWithException close,
+      final Progress progress) {
+    final CompletableFuture<Long> result = new CompletableFuture<>();
+    final BlockingQueue<B> free = new ArrayBlockingQueue<>(2);
+    final BlockingQueue<Chunk<B>> filled = new ArrayBlockingQueue<>(2);
+
+    free.add(newBuffer.get());
+    free.add(newBuffer.get());
+
+    final Thread reader = Thread.ofVirtual().start(() -> fill(read, free, filled, result));
+    final Thread writer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  final Reporter reporter = new Reporter(progress);
+                  long total = -1;
+
+                  try {
+                    total = drain(write, free, filled, result, reporter);
+                  } catch (Exception e) {
+                    result.completeExceptionally(e);
+                  } finally {
+                    reader.interrupt();
+                    closeAfter(close, result);
+                  }
+
+                  complete(result, total, reporter);
+                });
+
+    return interruptOnCancel(result, reader, writer);
+  }
+
+  private static void closeAfter(
+      final RunnableWithException close, final CompletableFuture<Long> result) {
+    try {
+      close.run();
+    } catch (Exception e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  /** The last report is only made when the copy, including closing, has succeeded. */
+  private static void complete(
+      final CompletableFuture<Long> result, final long total, final Reporter reporter) {
+    if (!result.isDone()) {
+      reporter.report(total, true);
+      result.complete(total);
+    }
+  }
+
+  private static <B> long drain(
+      final BiConsumerWithException<B, Integer> write,
+      final BlockingQueue<B> free,
+      final BlockingQueue<Chunk<B>> filled,
+      final CompletableFuture<Long> result,
+      final Reporter reporter)
+      throws Exception {
+    long total = 0;
+
+    while (!result.isDone()) {
+      final Chunk<B> chunk = filled.take();
+
+      if (chunk.exception != null) {
+        throw chunk.exception;
+      }
+
+      if (chunk.length == -1) {
+        return total;
+      }
+
+      write.accept(chunk.buffer, chunk.length);
+      total += chunk.length;
+      free.put(chunk.buffer);
+      reporter.report(total, false);
+    }
+
+    return total;
+  }
+
+  private static <B> void fill(
+      final FunctionWithException<B, Integer> read,
+      final BlockingQueue<B> free,
+      final BlockingQueue<Chunk<B>> filled,
+      final CompletableFuture<Long> result) {
+    try {
+      int length = 0;
+
+      while (length != -1 && !result.isDone()) {
+        final B buffer = free.take();
+
+        length = read.apply(buffer);
+        filled.put(new Chunk<>(buffer, length, null));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      filled.offer(new Chunk<>(null, -1, e));
+    }
+  }
+
+  private static CompletionStage<Long> interruptOnCancel(
+      final CompletableFuture<Long> result, final Thread... threads) {
+    result.whenComplete(
+        (r, e) -> {
+          if (e instanceof CancellationException) {
+            for (Thread thread : threads) {
+              thread.interrupt();
+            }
+          }
+        });
+
+    return result;
+  }
+
+  /** Receives progress reports, at most four times per second and once at the end. */
+  @FunctionalInterface
+  public interface Progress {
+    /**
+     * Reports the progress.
+     *
+     * @param transferred the number of bytes or characters that have been written so far.
+     * @param perSecond the average number of bytes or characters per second since the start.
+     * @param done set for the last report.
+     */
+    void report(long transferred, double perSecond, boolean done);
+  }
+
+  private record Chunk<B>(B buffer, int length, Exception exception) {}
+
+  private static class Reporter {
+    private final Progress progress;
+    private final long start = nanoTime();
+    private long last = start;
+
+    private Reporter(final Progress progress) {
+      this.progress = progress;
+    }
+
+    private void report(final long transferred, final boolean done) {
+      if (progress != null) {
+        final long now = nanoTime();
+
+        if (done || now - last >= REPORT_INTERVAL) {
+          last = now;
+          progress.report(
+              transferred, now > start ? transferred * 1_000_000_000.0 / (now - start) : 0, done);
+        }
+      }
+    }
+  }
+}
@@ -1,23 +1,34 @@
 package net.pincette.io;
 
+import static java.lang.Math.min;
+
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 
 /**
- * See also RFC 2045 section 6.8.
+ * See also RFC 2045 section 6.8. Characters that are not in the Base64 alphabet, such as line
+ * breaks, are ignored. The encoded input is read in chunks, which are decoded at once into a
+ * reused buffer. Groups of four alphabet characters are decoded together. The other characters go
+ * one by one.
  *
  * @author Werner Donné
  */
 public class Base64InputStream extends FilterInputStream {
+  private static final int BUFFER_SIZE = 0x2000;
+  private static final int IGNORE = -1;
+  private static final int PAD = -2;
   private static final byte[] values = createValues();
-  private final byte[] decodedBuffer = new byte[3];
-  // The room for one decoded quantum.
-  private byte[] encodedBuffer = null;
-  private int encodedPosition = 0;
-  private int length = 0;
-  private int quantumPosition = 0;
+
+  private final byte[] decoded = new byte[BUFFER_SIZE / 4 * 3 + 3];
+  private final byte[] encoded = new byte[BUFFER_SIZE];
+  private int count;
+  private int decodedLength;
+  private int decodedPosition;
+  private boolean eof;
+  private boolean padded;
+  private int quantum;
 
   public Base64InputStream(final InputStream in) {
     super(in);
@@ -27,7 +38,7 @@ public class Base64InputStream extends FilterInputStream {
     byte j = 0;
     byte[] result = new byte[256];
 
-    Arrays.fill(result, (byte) -1);
+    Arrays.fill(result, (byte) IGNORE);
 
     for (int i = 'A'; i <= 'Z'; ++i, ++j) {
       result[i] = j;
@@ -43,124 +54,167 @@ public class Base64InputStream extends FilterInputStream {
 
     result['+'] = j++;
     result['/'] = j;
+    result['='] = PAD;
 
     return result;
   }
 
+  /**
+   * Returns the number of decoded bytes that are buffered, plus an estimate for the bytes that the
+   * underlying stream can deliver without blocking. The estimate assumes a line break after every
+   * 76 characters.
+   *
+   * @return The estimated number of bytes.
+   * @throws IOException when the underlying stream fails.
+   */
   @Override
-  public int available() {
-    return 0;
-    // This can't be predicted because non-alphabet bytes must be ignored and
-    // we can't know up front how many there will be of them.
+  public int available() throws IOException {
+    return decodedLength
+        - decodedPosition
+        + (eof ? 0 : (int) min((long) in.available() * 57 / 78, Integer.MAX_VALUE));
   }
 
-  private void checkQuantumPosition() {
-    if (++quantumPosition == 4) {
-      Arrays.fill(decodedBuffer, (byte) 0);
-      quantumPosition = 0;
-    }
-  }
+  private int decode(final int length) {
+    int i = 0;
+    int j = 0;
+
+    while (i < length) {
+      if (count == 0) {
+        for (; length - i >= 4; i += 4) {
+          final int a = values[encoded[i] & 0xff];
+          final int b = values[encoded[i + 1] & 0xff];
+          final int c = values[encoded[i + 2] & 0xff];
+          final int d = values[encoded[i + 3] & 0xff];
+
+          if ((a | b | c | d) < 0) {
+            break;
+          }
+
+          final int v = a << 18 | b << 12 | c << 6 | d;
+
+          decoded[j++] = (byte) (v >> 16);
+          decoded[j++] = (byte) (v >> 8);
+          decoded[j++] = (byte) v;
+        }
+
+        if (i == length) {
+          break;
+        }
+      }
 
-  private int decodeQuantumPosition(final byte[] b, final int position, final int off) {
-    return switch (quantumPosition) {
-      case 0 -> decode0(position);
-      case 1 -> decode1(b, position, off);
-      case 2 -> decode2(b, position, off);
-      case 3 -> decode3(b, position, off);
-      default -> position;
-    };
-  }
+      final int value = values[encoded[i++] & 0xff];
 
-  private int decode0(final int position) {
-    decodedBuffer[0] = (byte) (values[encodedBuffer[encodedPosition]] << 2);
+      if (value != IGNORE) {
+        j = step(value, j);
+      }
+    }
 
-    return position;
+    return j;
   }
 
-  private int decode1(final byte[] b, final int position, final int off) {
-    decodedBuffer[0] |= (byte) ((values[encodedBuffer[encodedPosition]] >> 4) & 0x03);
-    decodedBuffer[1] = (byte) (values[encodedBuffer[encodedPosition]] << 4);
-    b[position + off] = decodedBuffer[0];
+  private int emitPartial(final int position) {
+    int j = position;
 
-    return position + 1;
-  }
+    if (count == 2) {
+      decoded[j++] = (byte) (quantum >> 4);
+    } else if (count == 3) {
+      decoded[j++] = (byte) (quantum >> 10);
+      decoded[j++] = (byte) (quantum >> 2);
+    }
 
-  private int decode2(final byte[] b, final int position, final int off) {
-    if (encodedBuffer[encodedPosition] != '=') {
-      decodedBuffer[1] |= (byte) ((values[encodedBuffer[encodedPosition]] >> 2) & 0x0f);
-      decodedBuffer[2] = (byte) (values[encodedBuffer[encodedPosition]] << 6);
-      b[position + off] = decodedBuffer[1];
+    return j;
+  }
 
-      return position + 1;
-    }
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
 
-    return position;
+  @Override
+  public int read() throws IOException {
+    return decodedPosition < decodedLength || refill() ? (decoded[decodedPosition++] & 0xff) : -1;
   }
 
-  private int decode3(final byte[] b, final int position, final int off) {
-    if (encodedBuffer[encodedPosition] != '=') {
-      decodedBuffer[2] |= values[encodedBuffer[encodedPosition]];
-      b[position + off] = decodedBuffer[2];
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    int i = 0;
+
+    while (i < len && (decodedPosition < decodedLength || refill())) {
+      final int length = min(len - i, decodedLength - decodedPosition);
 
-      return position + 1;
+      System.arraycopy(decoded, decodedPosition, b, off + i, length);
+      decodedPosition += length;
+      i += length;
     }
 
-    return position;
+    return i == 0 && len > 0 ? -1 : i;
   }
 
-  private boolean prepareBuffer(final int len) throws IOException {
-    if (length == -1) {
-      return false;
-    }
+  /** Decodes the next chunk. It returns <code>false</code> when there is no more output. */
+  private boolean refill() throws IOException {
+    decodedPosition = 0;
+    decodedLength = 0;
 
-    if (encodedBuffer == null || encodedPosition == length) {
-      encodedBuffer = new byte[Math.max(2 * len, 4)];
-      // Four input bytes become three bytes, so this is large enough to hold
-      // enough input for decoding.
-      encodedPosition = 0;
-      length = in.read(encodedBuffer);
+    while (decodedLength == 0 && !eof) {
+      final int length = in.read(encoded);
 
-      return length != -1;
+      if (length == -1) {
+        eof = true;
+        decodedLength = padded ? 0 : emitPartial(0);
+        count = 0;
+      } else {
+        decodedLength = decode(length);
+      }
     }
 
-    return true;
+    return decodedLength > 0;
   }
 
+  /**
+   * Skips decoded bytes, which requires decoding them.
+   *
+   * @param n the number of bytes to skip.
+   * @return The number of skipped bytes.
+   * @throws IOException when the underlying stream fails.
+   */
   @Override
-  public int read() throws IOException {
-    final byte[] b = new byte[1];
+  public long skip(final long n) throws IOException {
+    long skipped = 0;
 
-    return read(b, 0, b.length) == -1 ? -1 : (255 & b[0]);
-  }
+    while (skipped < n && (decodedPosition < decodedLength || refill())) {
+      final int length = (int) min(n - skipped, decodedLength - decodedPosition);
 
-  @Override
-  public int read(final byte[] b, final int off, final int len) throws IOException {
-    if (!prepareBuffer(len)) {
-      return -1;
+      decodedPosition += length;
+      skipped += length;
     }
 
-    int i = 0;
+    return skipped;
+  }
+
+  private int step(final int value, final int position) {
+    int j = position;
 
-    for (; encodedPosition < length && i < len; ++encodedPosition) {
-      if (values[encodedBuffer[encodedPosition]] != -1 || encodedBuffer[encodedPosition] == '=') {
-        i = decodeQuantumPosition(b, i, off);
-        checkQuantumPosition();
+    if (value == PAD) {
+      if (!padded) {
+        j = emitPartial(j);
+        padded = true;
       }
+    } else if (!padded) {
+      quantum = quantum << 6 | value;
     }
 
-    return i < len ? readAdditional(b, i, off, len) : len;
-  }
-
-  private int readAdditional(final byte[] b, int position, final int off, final int len)
-      throws IOException {
-    final int initial = position == 0 ? -1 : position;
-    final int bytesRead = read(b, off + position, len - position);
+    if (++count == 4) {
+      if (!padded) {
+        decoded[j++] = (byte) (quantum >> 16);
+        decoded[j++] = (byte) (quantum >> 8);
+        decoded[j++] = (byte) quantum;
+      }
 
-    return bytesRead == -1 ? initial : position + bytesRead;
-  }
+      count = 0;
+      padded = false;
+      quantum = 0;
+    }
 
-  @Override
-  public long skip(final long n) {
-    return 0; // See available method.
+    return j;
   }
 }
@@ -1,28 +1,35 @@
 package net.pincette.io;
 
+import static java.lang.Math.min;
+import static net.pincette.util.Codecs.encodeBase64;
+
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
  * This stream passes an arbitrary byte stream to the underlying stream in a Base64 encoded form.
- * See also RFC 2045 section 6.8.
+ * See also RFC 2045 section 6.8. The input is encoded in blocks of 57 bytes, which make up a line
+ * of 76 characters. Full blocks are encoded straight from the array that is given to <code>write
+ * </code> into a reused output buffer, so nothing is allocated while writing. Every line of 76
+ * characters ends with CRLF, also the last one.
  *
  * @author Werner Donné
  */
 public class Base64OutputStream extends FilterOutputStream {
-  private static final byte[] alphabet = {
-    'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S',
-    'T', 'U', 'V', 'W', 'X', 'Y', 'Z', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l',
-    'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '0', '1', '2', '3', '4',
-    '5', '6', '7', '8', '9', '+', '/'
-  };
-
-  private final byte[] buffer = new byte[3]; // One encoding quantum.
+  private static final int BLOCK = 57;
+  private static final int LINE = 76;
+  private static final int LINES = 64;
+
+  private final byte[] block = new byte[BLOCK];
   private final boolean closeUnderlying;
-  private int lineSize = 0;
-  private boolean oneLine;
-  private int position = 0;
+  private final boolean oneLine;
+  private final byte[] output = new byte[LINES * (LINE + 2)];
+  private final boolean padding;
+  private final boolean url;
+  private boolean closed;
+  private int outputPosition;
+  private int position;
 
   public Base64OutputStream(final OutputStream out) {
     this(out, false, true);
@@ -30,103 +37,147 @@ public class Base64OutputStream extends FilterOutputStream {
 
   public Base64OutputStream(final OutputStream out, final boolean oneLine) {
     this(out, oneLine, true);
-    this.oneLine = oneLine;
   }
 
   public Base64OutputStream(
       final OutputStream out, final boolean oneLine, final boolean closeUnderlying) {
+    this(out, oneLine, closeUnderlying, false, true);
+  }
+
+  /**
+   * Creates an encoding stream.
+   *
+   * @param out the underlying stream.
+   * @param oneLine when set no line breaks are inserted.
+   * @param closeUnderlying when set the underlying stream is closed when this one is closed.
+   * @param url when set the Base64URL alphabet of RFC 4648 is used.
+   * @param padding when not set the encoding doesn't end with "=" characters.
+   * @since 2.6
+   */
+  public Base64OutputStream(
+      final OutputStream out,
+      final boolean oneLine,
+      final boolean closeUnderlying,
+      final boolean url,
+      final boolean padding) {
     super(out);
     this.oneLine = oneLine;
     this.closeUnderlying = closeUnderlying;
-  }
-
-  private int checkLine(final byte[] b, final int off) {
-    if (++lineSize == 76) {
-      lineSize = 0;
-      b[off] = '\r';
-      b[off + 1] = '\n';
-
-      return 2;
-    }
-
-    return 0;
+    this.url = url;
+    this.padding = padding;
   }
 
   @Override
   public void close() throws IOException {
-    if (position > 0) {
-      final byte[] output = new byte[6];
-      final int len = encode(output, 0);
+    if (!closed) {
+      closed = true;
 
-      out.write(output, 0, len);
-    }
+      if (position > 0) {
+        if (output.length - outputPosition < LINE + 2) {
+          writeOutput();
+        }
 
-    out.flush();
+        int length = encodeBase64(block, 0, position, output, outputPosition, url);
 
-    if (closeUnderlying) {
-      out.close();
-    }
-  }
+        while (!padding && output[outputPosition + length - 1] == '=') {
+          --length;
+        }
 
-  private int encode(final byte[] b, final int off) {
-    int i = off;
+        outputPosition += length;
+        position = 0;
 
-    b[i++] = alphabet[(buffer[0] >> 2) & 0x3f];
-
-    if (!oneLine) {
-      i += checkLine(b, i);
-    }
+        if (!oneLine && length == LINE) {
+          output[outputPosition++] = '\r';
+          output[outputPosition++] = '\n';
+        }
+      }
 
-    b[i++] = alphabet[((buffer[0] << 4) & 0x3f) | ((buffer[1] >> 4) & 0x0f)];
+      writeOutput();
+      out.flush();
 
-    if (!oneLine) {
-      i += checkLine(b, i);
+      if (closeUnderlying) {
+        out.close();
+      }
     }
+  }
 
-    // Only at the end of the stream the position can be left elsewhere than
-    // at the start of the buffer. In that case padding must added.
-
-    b[i++] =
-        position > 1 ? alphabet[((buffer[1] << 2) & 0x3f) | ((buffer[2] >> 6) & 0x03)] : (byte) '=';
+  private void checkClosed() throws IOException {
+    if (closed) {
+      throw new IOException("The stream is closed.");
+    }
+  }
 
-    if (!oneLine) {
-      i += checkLine(b, i);
+  private void encodeBlock(final byte[] b, final int off) throws IOException {
+    if (output.length - outputPosition < LINE + 2) {
+      writeOutput();
     }
 
-    b[i++] = position > 2 ? alphabet[buffer[2] & 0x3f] : (byte) '=';
+    outputPosition += encodeBase64(b, off, BLOCK, output, outputPosition, url);
 
     if (!oneLine) {
-      i += checkLine(b, i);
+      output[outputPosition++] = '\r';
+      output[outputPosition++] = '\n';
     }
+  }
 
-    for (int j = 0; j < buffer.length; buffer[j++] = 0)
-      ;
-    position = 0;
-
-    return i - off;
+  /**
+   * Writes the encoded bytes that are waiting in the output buffer. An incomplete block can only
+   * be encoded when the stream is closed.
+   *
+   * @throws IOException when the underlying stream can't be written.
+   */
+  @Override
+  public void flush() throws IOException {
+    writeOutput();
+    out.flush();
   }
 
   @Override
   public void write(final int b) throws IOException {
-    write(new byte[] {(byte) b}, 0, 1);
+    checkClosed();
+    block[position++] = (byte) b;
+
+    if (position == BLOCK) {
+      encodeBlock(block, 0);
+      position = 0;
+    }
   }
 
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
-    int j = 0;
-    final byte[] output = new byte[Math.max(len * 2, 6)];
-    // Reserve enough room for either the encoded result, which is 33
-    // percent larger than the input, or the size of one encoded quantum plus
-    // one possible \r\n combination, which is the least that can be written.
+    checkClosed();
+
+    final int end = off + min(len, b.length - off);
+    int i = off;
 
-    for (int i = off; i < off + len && i < b.length; ++i) {
-      buffer[position++] = b[i];
+    if (position > 0) {
+      final int length = min(BLOCK - position, end - i);
+
+      System.arraycopy(b, i, block, position, length);
+      position += length;
+      i += length;
 
-      if (position == buffer.length) {
-        j += encode(output, j);
+      if (position < BLOCK) {
+        return;
       }
+
+      encodeBlock(block, 0);
+      position = 0;
     }
 
-    out.write(output, 0, j);
+    for (; end - i >= BLOCK; i += BLOCK) {
+      encodeBlock(b, i);
+    }
+
+    System.arraycopy(b, i, block, 0, end - i);
+    position = end - i;
+    writeOutput();
+  }
+
+  private void writeOutput() throws IOException {
+    if (outputPosition > 0) {
+      out.write(output, 0, outputPosition);
+      outputPosition = 0;
+    }
   }
 }
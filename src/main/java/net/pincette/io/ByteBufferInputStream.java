@@ -2,49 +2,278 @@ package net.pincette.io;
 
 import static java.lang.Math.min;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.Buffer;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
-import java.util.Optional;
 
 /**
- * Creates an input stream from a list of buffers.
+ * Creates an input stream from a list of buffers. The positions of the buffers are advanced as
+ * they are read. A cursor points to the first buffer that may still have bytes, so a read doesn't
+ * look at the buffers that were consumed before. The {@link #channel()} view lets channel readers
+ * take the bytes without an intermediate array.
  *
  * @author Werner Donné
  * @since 2.2
  */
 public class ByteBufferInputStream extends InputStream {
+  private static final int TRANSFER_SIZE = 0x2000;
+
   private final List<ByteBuffer> buffers;
+  private int current;
 
   public ByteBufferInputStream(final List<ByteBuffer> buffers) {
     this.buffers = buffers;
   }
 
-  private Optional<ByteBuffer> findRemaining() {
-    return buffers.stream().filter(Buffer::hasRemaining).findFirst();
+  /**
+   * Returns the number of bytes that are left in the buffers.
+   *
+   * @return The number of bytes, which is limited to <code>Integer.MAX_VALUE</code>.
+   */
+  @Override
+  public int available() {
+    return (int) min(remaining(), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a channel view of this stream. Reading from it advances this stream.
+   *
+   * @return The channel.
+   * @since 2.6
+   */
+  public ScatteringByteChannel channel() {
+    return new Channel();
+  }
+
+  private ByteBuffer currentBuffer() {
+    while (current < buffers.size()) {
+      final ByteBuffer buffer = buffers.get(current);
+
+      if (buffer.hasRemaining()) {
+        return buffer;
+      }
+
+      ++current;
+    }
+
+    return null;
   }
 
   @Override
   public int read() {
-    final byte[] b = new byte[1];
+    final ByteBuffer buffer = currentBuffer();
 
-    return read(b, 0, b.length) == -1 ? -1 : (255 & b[0]);
+    return buffer != null ? (buffer.get() & 0xff) : -1;
   }
 
   @Override
   public int read(final byte[] b, final int off, final int len) {
-    return len > 0
-        ? findRemaining()
-            .map(
-                buffer -> {
-                  final int size = min(len, buffer.remaining());
-
-                  buffer.get(b, off, size);
-
-                  return size;
-                })
-            .orElse(-1)
-        : 0;
+    int i = 0;
+    ByteBuffer buffer;
+
+    while (i < len && (buffer = currentBuffer()) != null) {
+      final int size = min(len - i, buffer.remaining());
+
+      buffer.get(b, off + i, size);
+      i += size;
+    }
+
+    return i == 0 && len > 0 ? -1 : i;
+  }
+
+  private int read(final ByteBuffer dst) {
+    if (!dst.hasRemaining()) {
+      return 0;
+    }
+
+    int result = 0;
+    ByteBuffer buffer;
+
+    while (dst.hasRemaining() && (buffer = currentBuffer()) != null) {
+      final int size = min(dst.remaining(), buffer.remaining());
+
+      dst.put(dst.position(), buffer, buffer.position(), size);
+      dst.position(dst.position() + size);
+      buffer.position(buffer.position() + size);
+      result += size;
+    }
+
+    return result == 0 ? -1 : result;
+  }
+
+  /**
+   * Reads up to <code>len</code> bytes into an array of the exact size.
+   *
+   * @param len the maximum number of bytes.
+   * @return The bytes.
+   */
+  @Override
+  public byte[] readNBytes(final int len) {
+    if (len < 0) {
+      throw new IllegalArgumentException("len < 0");
+    }
+
+    final byte[] result = new byte[(int) min(len, remaining())];
+
+    read(result, 0, result.length);
+
+    return result;
+  }
+
+  @Override
+  public byte[] readAllBytes() {
+    return readNBytes(Integer.MAX_VALUE);
+  }
+
+  private long remaining() {
+    long result = 0;
+
+    for (int i = current; i < buffers.size(); ++i) {
+      result += buffers.get(i).remaining();
+    }
+
+    return result;
+  }
+
+  @Override
+  public long skip(final long n) {
+    long skipped = 0;
+    ByteBuffer buffer;
+
+    while (skipped < n && (buffer = currentBuffer()) != null) {
+      final int size = (int) min(n - skipped, buffer.remaining());
+
+      buffer.position(buffer.position() + size);
+      skipped += size;
+    }
+
+    return skipped;
+  }
+
+  /**
+   * Writes the remaining bytes to <code>out</code>. Buffers with an accessible array are written
+   * directly from it.
+   *
+   * @param out the output stream.
+   * @return The number of transferred bytes.
+   * @throws IOException when <code>out</code> can't be written.
+   */
+  @Override
+  public long transferTo(final OutputStream out) throws IOException {
+    byte[] chunk = null;
+    long result = 0;
+    ByteBuffer buffer;
+
+    while ((buffer = currentBuffer()) != null) {
+      final int size;
+
+      if (buffer.hasArray()) {
+        size = buffer.remaining();
+        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), size);
+        buffer.position(buffer.limit());
+      } else {
+        if (chunk == null) {
+          chunk = new byte[TRANSFER_SIZE];
+        }
+
+        size = min(chunk.length, buffer.remaining());
+        buffer.get(chunk, 0, size);
+        out.write(chunk, 0, size);
+      }
+
+      result += size;
+    }
+
+    return result;
+  }
+
+  /**
+   * Writes the remaining bytes to <code>channel</code> without copying them. A gathering channel
+   * receives all buffers at once. When the channel accepts no bytes, which a non-blocking channel
+   * does when it is full, the method returns. The bytes that were not written remain in the
+   * stream, so the call can be repeated when the channel is ready again.
+   *
+   * @param channel the channel.
+   * @return The number of transferred bytes.
+   * @throws IOException when <code>channel</code> can't be written.
+   * @since 2.6
+   */
+  public long writeTo(final WritableByteChannel channel) throws IOException {
+    long result = 0;
+
+    if (channel instanceof GatheringByteChannel gathering) {
+      final ByteBuffer[] remaining =
+          buffers.subList(current, buffers.size()).toArray(new ByteBuffer[0]);
+      long written = -1;
+
+      while (written != 0 && currentBuffer() != null) {
+        written = gathering.write(remaining);
+        result += written;
+      }
+    } else {
+      ByteBuffer buffer;
+      int written = -1;
+
+      while (written != 0 && (buffer = currentBuffer()) != null) {
+        written = channel.write(buffer);
+        result += written;
+      }
+    }
+
+    return result;
+  }
+
+  private class Channel implements ScatteringByteChannel {
+    private boolean open = true;
+
+    @Override
+    public void close() {
+      open = false;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+      if (!open) {
+        throw new ClosedChannelException();
+      }
+
+      return ByteBufferInputStream.this.read(dst);
+    }
+
+    @Override
+    public long read(final ByteBuffer[] dsts, final int offset, final int length)
+        throws IOException {
+      long result = 0;
+
+      for (int i = offset; i < offset + length; ++i) {
+        if (dsts[i].hasRemaining()) {
+          final int read = read(dsts[i]);
+
+          if (read == -1) {
+            return result == 0 ? -1 : result;
+          }
+
+          result += read;
+        }
+      }
+
+      return result;
+    }
+
+    @Override
+    public long read(final ByteBuffer[] dsts) throws IOException {
+      return read(dsts, 0, dsts.length);
+    }
   }
 }
@@ -5,18 +5,35 @@ import static java.lang.Math.min;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
- * Writes the bytes to a series of buffers. It will request as many buffers as needed.
+ * Writes the bytes to a series of buffers. It will request as many buffers as needed. The {@link
+ * #channel()} view copies the bytes of the given buffers without an intermediate array.
  *
  * @since 2.2
  * @author Werner Donné
  */
 public class ByteBufferOutputStream extends OutputStream {
+  private static final int POOLED_BUFFER_SIZE = 0x2000;
+
   private final Supplier<ByteBuffer> get;
   private final Runnable onFlush;
 
+  /**
+   * Writes to buffers of 8KB from {@link ByteBufferPool#heap()}, which are added to <code>buffers
+   * </code>. They should be released to the pool when they are no longer needed.
+   *
+   * @param buffers the list that receives the buffers.
+   * @since 2.6
+   */
+  public ByteBufferOutputStream(final List<ByteBuffer> buffers) {
+    this(ByteBufferPool.heap().supplier(POOLED_BUFFER_SIZE, buffers));
+  }
+
   public ByteBufferOutputStream(final Supplier<ByteBuffer> get) {
     this(get, null);
   }
@@ -26,6 +43,16 @@ public class ByteBufferOutputStream extends OutputStream {
     this.onFlush = onFlush;
   }
 
+  /**
+   * Returns a channel view of this stream. Closing it doesn't close the stream.
+   *
+   * @return The channel.
+   * @since 2.6
+   */
+  public GatheringByteChannel channel() {
+    return new Channel();
+  }
+
   @Override
   public void close() {
     flush();
@@ -40,8 +67,22 @@ public class ByteBufferOutputStream extends OutputStream {
 
   @Override
   public void write(final int b) throws IOException {
+    get.get().put((byte) b);
+  }
+
+  private int write(final ByteBuffer src) {
+    final int result = src.remaining();
 
-    write(new byte[] {(byte) b}, 0, 1);
+    while (src.hasRemaining()) {
+      final ByteBuffer buffer = get.get();
+      final int size = min(src.remaining(), buffer.remaining());
+
+      buffer.put(buffer.position(), src, src.position(), size);
+      buffer.position(buffer.position() + size);
+      src.position(src.position() + size);
+    }
+
+    return result;
   }
 
   @Override
@@ -51,15 +92,54 @@ public class ByteBufferOutputStream extends OutputStream {
 
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
-    if (len > 0) {
+    int i = 0;
+
+    while (i < len) {
       final ByteBuffer buffer = get.get();
-      final int size = min(len, buffer.remaining());
+      final int size = min(len - i, buffer.remaining());
 
-      buffer.put(b, off, size);
+      buffer.put(b, off + i, size);
+      i += size;
+    }
+  }
 
-      if (size < len) {
-        write(b, off + size, len - size);
+  private class Channel implements GatheringByteChannel {
+    private boolean open = true;
+
+    @Override
+    public void close() {
+      open = false;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      if (!open) {
+        throw new ClosedChannelException();
       }
+
+      return ByteBufferOutputStream.this.write(src);
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length)
+        throws IOException {
+      long result = 0;
+
+      for (int i = offset; i < offset + length; ++i) {
+        result += write(srcs[i]);
+      }
+
+      return result;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs) throws IOException {
+      return write(srcs, 0, srcs.length);
     }
   }
 }
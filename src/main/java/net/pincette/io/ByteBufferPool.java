@@ -0,0 +1,411 @@
+package net.pincette.io;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.util.logging.Logger.getLogger;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * A pool of byte buffers in power-of-two size classes, from 512 bytes to 4MB. Larger requests are
+ * allocated without pooling. Platform threads keep a few buffers of up to 64KB per size class for
+ * themselves, so most acquisitions and releases don't touch the shared queues. The total size of
+ * the pooled buffers, including the ones that threads keep, is bounded. Released buffers that
+ * don't fit anymore are left to the garbage collector. The buffers of threads that have ended are
+ * moved to the shared queues when the bound is reached.
+ *
+ * <p>With leak tracking, the pool detects buffers that were garbage collected without being
+ * released. They are counted and logged with the stack trace of their acquisition. This costs a
+ * stack trace per acquisition, so it is meant for testing. Buffers that are released twice are
+ * then also detected.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ByteBufferPool {
+  private static final int MAX_SHIFT = 22;
+  private static final int MIN_SHIFT = 9;
+  private static final int CLASSES = MAX_SHIFT - MIN_SHIFT + 1;
+  private static final long DEFAULT_MAX_POOLED = 0x4000000L;
+  private static final int THREAD_CACHE_MAX_CLASS = 16 - MIN_SHIFT;
+  private static final int THREAD_CACHE_SIZE = 4;
+  private static final int SWEEP_INTERVAL = 64;
+
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder allocated = new LongAdder();
+  private final Set<ThreadCache> caches = ConcurrentHashMap.newKeySet();
+  private final boolean direct;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder leaks = new LongAdder();
+  private final ReferenceQueue<ByteBuffer> leakQueue = new ReferenceQueue<>();
+  private final long maxPooled;
+  private final AtomicLong pooled = new AtomicLong();
+  private final List<Queue<ByteBuffer>> pools = new CopyOnWriteArrayList<>();
+  private final AtomicInteger registered = new AtomicInteger();
+  private final LongAdder released = new LongAdder();
+  private final ThreadLocal<ThreadCache> threadCaches;
+  private final Map<Integer, List<Tracker>> trackers;
+
+  /**
+   * Creates a pool.
+   *
+   * @param direct when set the pool allocates direct buffers, otherwise heap buffers.
+   * @param maxPooled the maximum total capacity of the pooled buffers.
+   * @param trackLeaks when set buffers that are never released are reported.
+   */
+  public ByteBufferPool(final boolean direct, final long maxPooled, final boolean trackLeaks) {
+    this.direct = direct;
+    this.maxPooled = maxPooled;
+    trackers = trackLeaks ? new ConcurrentHashMap<>() : null;
+    threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+
+    for (int i = 0; i < CLASSES; ++i) {
+      pools.add(new ConcurrentLinkedQueue<>());
+    }
+  }
+
+  /**
+   * Returns the shared pool of direct buffers, which keeps at most 64MB.
+   *
+   * @return The pool.
+   */
+  public static ByteBufferPool direct() {
+    return Defaults.DIRECT;
+  }
+
+  /**
+   * Returns the shared pool of heap buffers, which keeps at most 64MB.
+   *
+   * @return The pool.
+   */
+  public static ByteBufferPool heap() {
+    return Defaults.HEAP;
+  }
+
+  private static boolean contains(final Deque<ByteBuffer> cache, final ByteBuffer buffer) {
+    for (ByteBuffer b : cache) {
+      if (b == buffer) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /** Returns the size class of a requested size or -1 if it is too large. */
+  private static int sizeClass(final int size) {
+    final int shift = size <= 1 << MIN_SHIFT ? MIN_SHIFT : 32 - numberOfLeadingZeros(size - 1);
+
+    return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+  }
+
+  /**
+   * Returns a cleared buffer with a capacity of at least <code>size</code>. The capacity is the
+   * next power of two, but the limit is set to <code>size</code>.
+   *
+   * @param size the requested size.
+   * @return The buffer.
+   */
+  public ByteBuffer acquire(final int size) {
+    final int sizeClass = sizeClass(size);
+    final ByteBuffer buffer = sizeClass != -1 ? take(sizeClass) : null;
+    final ByteBuffer result =
+        buffer != null ? buffer : allocate(sizeClass != -1 ? 1 << (sizeClass + MIN_SHIFT) : size);
+
+    acquired.increment();
+
+    if (buffer != null) {
+      hits.increment();
+    }
+
+    if (trackers != null) {
+      track(result);
+    }
+
+    return result.clear().limit(size);
+  }
+
+  private ByteBuffer allocate(final int capacity) {
+    allocated.increment();
+
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  private void checkLeaks() {
+    Tracker tracker;
+
+    while ((tracker = (Tracker) leakQueue.poll()) != null) {
+      if (untrack(tracker)) {
+        leaks.increment();
+        getLogger(getClass().getName())
+            .log(Level.WARNING, "A buffer was never released.", tracker.acquisition);
+      }
+    }
+  }
+
+  /**
+   * Returns a snapshot of the usage counters.
+   *
+   * @return The metrics.
+   */
+  public Metrics metrics() {
+    if (trackers != null) {
+      checkLeaks();
+    }
+
+    return new Metrics(
+        acquired.sum(),
+        released.sum(),
+        allocated.sum(),
+        hits.sum(),
+        leaks.sum(),
+        pooled.get());
+  }
+
+  /**
+   * Moves the buffers of the threads that have ended to the shared queues. Their capacity was
+   * already counted.
+   */
+  private void moveAbandoned() {
+    for (ThreadCache cache : caches) {
+      if (!cache.owner.isAlive() && caches.remove(cache)) {
+        for (int i = 0; i < cache.buffers.length; ++i) {
+          pools.get(i).addAll(cache.buffers[i]);
+          cache.buffers[i].clear();
+        }
+      }
+    }
+  }
+
+  private ThreadCache newThreadCache() {
+    final ThreadCache cache = new ThreadCache(Thread.currentThread());
+
+    caches.add(cache);
+
+    if (registered.incrementAndGet() % SWEEP_INTERVAL == 0) {
+      moveAbandoned();
+    }
+
+    return cache;
+  }
+
+  /**
+   * Gives a buffer back to the pool. It should not be used anymore afterwards. Buffers of another
+   * kind, read-only buffers and buffers with a capacity that is not a size class are ignored.
+   *
+   * @param buffer the buffer.
+   * @throws IllegalStateException when the buffer is released for the second time. This is always
+   *     detected with leak tracking and otherwise when the buffer is still kept by the thread.
+   */
+  public void release(final ByteBuffer buffer) {
+    final int capacity = buffer.capacity();
+    final boolean poolable =
+        buffer.isDirect() == direct
+            && !buffer.isReadOnly()
+            && bitCount(capacity) == 1
+            && capacity >= 1 << MIN_SHIFT
+            && capacity <= 1 << MAX_SHIFT;
+
+    if (trackers != null) {
+      if (!untrack(buffer) && poolable) {
+        throw new IllegalStateException("The buffer was not acquired or is already released.");
+      }
+
+      checkLeaks();
+    }
+
+    released.increment();
+
+    if (poolable) {
+      final int sizeClass = sizeClass(capacity);
+      final Deque<ByteBuffer> cache = threadCache(sizeClass);
+
+      if (cache != null && contains(cache, buffer)) {
+        throw new IllegalStateException("The buffer is already released.");
+      }
+
+      buffer.clear();
+
+      if (reserve(capacity)) {
+        if (cache != null && cache.size() < THREAD_CACHE_SIZE) {
+          cache.push(buffer);
+        } else {
+          pools.get(sizeClass).offer(buffer);
+        }
+      }
+    }
+  }
+
+  private boolean reserve(final int capacity) {
+    if (tryReserve(capacity)) {
+      return true;
+    }
+
+    moveAbandoned();
+
+    return tryReserve(capacity);
+  }
+
+  /**
+   * Returns a supplier for <code>ByteBufferOutputStream</code> that adds a buffer of <code>size
+   * </code> bytes to <code>buffers</code> each time the last one is full. The caller should release
+   * the buffers when they are no longer needed.
+   *
+   * @param size the size of the buffers.
+   * @param buffers the list that receives the buffers.
+   * @return The supplier.
+   */
+  public Supplier<ByteBuffer> supplier(final int size, final List<ByteBuffer> buffers) {
+    return () -> {
+      if (buffers.isEmpty() || !buffers.get(buffers.size() - 1).hasRemaining()) {
+        buffers.add(acquire(size));
+      }
+
+      return buffers.get(buffers.size() - 1);
+    };
+  }
+
+  private ByteBuffer take(final int sizeClass) {
+    final Deque<ByteBuffer> cache = threadCache(sizeClass);
+    final ByteBuffer cached = cache != null ? cache.poll() : null;
+    final ByteBuffer result = cached != null ? cached : pools.get(sizeClass).poll();
+
+    if (result != null) {
+      pooled.addAndGet(-result.capacity());
+    }
+
+    return result;
+  }
+
+  /** Virtual threads and large buffers don't use a thread cache. */
+  private Deque<ByteBuffer> threadCache(final int sizeClass) {
+    return sizeClass <= THREAD_CACHE_MAX_CLASS && !Thread.currentThread().isVirtual()
+        ? threadCaches.get().buffers[sizeClass]
+        : null;
+  }
+
+  private void track(final ByteBuffer buffer) {
+    final Tracker tracker = new Tracker(buffer, leakQueue);
+
+    trackers.compute(
+        tracker.identity,
+        (k, v) -> {
+          final List<Tracker> list = v != null ? v : new ArrayList<>(1);
+
+          list.add(tracker);
+
+          return list;
+        });
+  }
+
+  private boolean tryReserve(final int capacity) {
+    long current;
+
+    do {
+      current = pooled.get();
+
+      if (current + capacity > maxPooled) {
+        return false;
+      }
+    } while (!pooled.compareAndSet(current, current + capacity));
+
+    return true;
+  }
+
+  // The identity hash code is not unique, so there is a list per code.
+  private boolean untrack(final ByteBuffer buffer) {
+    final boolean[] removed = new boolean[1];
+
+    trackers.computeIfPresent(
+        System.identityHashCode(buffer),
+        (k, v) -> {
+          removed[0] = v.removeIf(t -> t.get() == buffer);
+
+          return v.isEmpty() ? null : v;
+        });
+
+    return removed[0];
+  }
+
+  private boolean untrack(final Tracker tracker) {
+    final boolean[] removed = new boolean[1];
+
+    trackers.computeIfPresent(
+        tracker.identity,
+        (k, v) -> {
+          removed[0] = v.remove(tracker);
+
+          return v.isEmpty() ? null : v;
+        });
+
+    return removed[0];
+  }
+
+  /**
+   * The usage counters of a pool.
+   *
+   * @param acquired the number of acquisitions.
+   * @param released the number of releases.
+   * @param allocated the number of buffers that had to be allocated.
+   * @param hits the number of acquisitions that were served from the pool.
+   * @param leaks the number of buffers that were garbage collected without being released. It is
+   *     only counted with leak tracking.
+   * @param pooledBytes the total capacity of the pooled buffers, including the ones that threads
+   *     keep for themselves.
+   */
+  public record Metrics(
+      long acquired, long released, long allocated, long hits, long leaks, long pooledBytes) {}
+
+  private static class Defaults {
+    private static final ByteBufferPool DIRECT =
+        new ByteBufferPool(true, DEFAULT_MAX_POOLED, false);
+    private static final ByteBufferPool HEAP = new ByteBufferPool(false, DEFAULT_MAX_POOLED, false);
+  }
+
+  private static class ThreadCache {
+    private final Deque<ByteBuffer>[] buffers = newBuffers();
+    private final Thread owner;
+
+    private ThreadCache(final Thread owner) {
+      this.owner = owner;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Deque<ByteBuffer>[] newBuffers() {
+      final Deque<ByteBuffer>[] result = new Deque[THREAD_CACHE_MAX_CLASS + 1];
+
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+      }
+
+      return result;
+    }
+  }
+
+  private static class Tracker extends WeakReference<ByteBuffer> {
+    private final Throwable acquisition = new Throwable("Acquisition of the buffer");
+    private final int identity;
+
+    private Tracker(final ByteBuffer buffer, final ReferenceQueue<ByteBuffer> queue) {
+      super(buffer, queue);
+      identity = System.identityHashCode(buffer);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package net.pincette.io;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sizing of the output buffers for decompression. Size hints may come from untrusted input, so
+ * the first buffer is bounded by the largest DEFLATE ratio and a ceiling. Larger outputs grow the
+ * buffer.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+final class CodecBuffers {
+  private static final int INITIAL_CEILING = 0x1000000;
+  private static final long MAX_RATIO = 1032;
+  private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+  private static final int MIN_SIZE = 64;
+
+  private CodecBuffers() {}
+
+  /** Copies the written bytes of <code>out</code> into a buffer that is twice as large. */
+  static ByteBuffer grow(final ByteBuffer out) {
+    return ByteBuffer.allocate(grow(out.capacity())).put(out.flip());
+  }
+
+  static int grow(final int size) {
+    if (size >= MAX_SIZE) {
+      throw new OutOfMemoryError("The decompressed data is too large.");
+    }
+
+    return (int) min(size * 2L, MAX_SIZE);
+  }
+
+  static int initialSize(final ByteBuffer in, final int hint) {
+    return (int) max(MIN_SIZE, min(min(hint, in.remaining() * MAX_RATIO), INITIAL_CEILING));
+  }
+}
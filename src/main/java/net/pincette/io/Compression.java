@@ -0,0 +1,65 @@
+package net.pincette.io;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * The registry of compression codecs. The codecs "gzip", "deflate" and "raw-deflate" are always
+ * there. Other codecs are found with the <code>ServiceLoader</code> of {@link CompressionCodec} or
+ * can be registered explicitly.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class Compression {
+  private static final CompressionCodec GZIP = new GzipCodec();
+  private static final Map<String, CompressionCodec> codecs = loadCodecs();
+
+  private Compression() {}
+
+  /**
+   * Looks up a codec by name.
+   *
+   * @param name the name of the codec.
+   * @return The optional codec.
+   */
+  public static Optional<CompressionCodec> codec(final String name) {
+    return ofNullable(codecs.get(name));
+  }
+
+  /**
+   * Returns the shared GZIP codec with the default compression level and strategy.
+   *
+   * @return The codec.
+   */
+  public static CompressionCodec gzip() {
+    return GZIP;
+  }
+
+  private static Map<String, CompressionCodec> loadCodecs() {
+    final Map<String, CompressionCodec> result = new ConcurrentHashMap<>();
+
+    ServiceLoader.load(CompressionCodec.class).forEach(c -> result.put(c.name(), c));
+    result.put(GZIP.name(), GZIP);
+    result.computeIfAbsent("deflate", n -> new DeflateCodec());
+    result.computeIfAbsent(
+        "raw-deflate",
+        n -> new DeflateCodec(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, true));
+
+    return result;
+  }
+
+  /**
+   * Registers a codec under its name, replacing the codec that may already have that name.
+   *
+   * @param codec the codec.
+   */
+  public static void register(final CompressionCodec codec) {
+    codecs.put(codec.name(), codec);
+  }
+}
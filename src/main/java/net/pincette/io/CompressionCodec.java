@@ -0,0 +1,122 @@
+package net.pincette.io;
+
+import static java.util.Arrays.copyOf;
+import static net.pincette.io.CodecBuffers.grow;
+import static net.pincette.io.CodecBuffers.initialSize;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compression algorithm that works on buffers. Implementations can be registered with the <code>
+ * ServiceLoader</code> mechanism and looked up with {@link Compression#codec(String)}.
+ * Implementations must be thread-safe.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public interface CompressionCodec {
+  /**
+   * Compresses the remaining bytes of <code>in</code> into <code>out</code>. The positions of both
+   * buffers are advanced. The buffers may be direct.
+   *
+   * @param in the uncompressed bytes.
+   * @param out the buffer that receives the compressed bytes.
+   * @return The number of compressed bytes.
+   * @throws BufferOverflowException when <code>out</code> doesn't have enough room. Using {@link
+   *     #maxCompressedLength(int)} for its size avoids this.
+   */
+  int compress(ByteBuffer in, ByteBuffer out);
+
+  /**
+   * Compresses the remaining bytes of <code>in</code> into a new heap buffer, which is ready to be
+   * read.
+   *
+   * @param in the uncompressed bytes.
+   * @return The compressed bytes.
+   */
+  default ByteBuffer compress(final ByteBuffer in) {
+    final ByteBuffer out = ByteBuffer.allocate(maxCompressedLength(in.remaining()));
+
+    compress(in, out);
+
+    return out.flip();
+  }
+
+  default byte[] compress(final byte[] b) {
+    final ByteBuffer out = compress(ByteBuffer.wrap(b));
+
+    return copyOf(out.array(), out.limit());
+  }
+
+  /**
+   * Decompresses the remaining bytes of <code>in</code> into <code>out</code>. The positions of
+   * both buffers are advanced. The buffers may be direct.
+   *
+   * @param in the compressed bytes.
+   * @param out the buffer that receives the decompressed bytes.
+   * @return The number of decompressed bytes.
+   * @throws BufferOverflowException when <code>out</code> doesn't have enough room.
+   */
+  int decompress(ByteBuffer in, ByteBuffer out);
+
+  /**
+   * Decompresses the remaining bytes of <code>in</code> into a new heap buffer, which is ready to
+   * be read. The output buffer is sized with {@link #decompressedLengthHint(ByteBuffer)}, which is
+   * bounded because it may come from untrusted input. When the buffer turns out to be too small the
+   * decompression is restarted with a buffer that is twice as large. Codecs that can continue in a
+   * larger buffer should override this method.
+   *
+   * @param in the compressed bytes.
+   * @return The decompressed bytes.
+   */
+  default ByteBuffer decompress(final ByteBuffer in) {
+    int size = initialSize(in, decompressedLengthHint(in));
+
+    while (true) {
+      final ByteBuffer source = in.duplicate();
+      final ByteBuffer out = ByteBuffer.allocate(size);
+
+      try {
+        decompress(source, out);
+        in.position(source.position());
+
+        return out.flip();
+      } catch (BufferOverflowException e) {
+        size = grow(size);
+      }
+    }
+  }
+
+  default byte[] decompress(final byte[] b) {
+    final ByteBuffer out = decompress(ByteBuffer.wrap(b));
+
+    return copyOf(out.array(), out.limit());
+  }
+
+  /**
+   * Estimates the decompressed size of the remaining bytes of <code>in</code> without changing its
+   * position. Formats that record the size should return it exactly.
+   *
+   * @param in the compressed bytes.
+   * @return The estimated size.
+   */
+  default int decompressedLengthHint(final ByteBuffer in) {
+    return in.remaining() * 4;
+  }
+
+  /**
+   * Returns the largest possible compressed size for <code>length</code> uncompressed bytes.
+   *
+   * @param length the uncompressed size.
+   * @return The upper bound.
+   */
+  int maxCompressedLength(int length);
+
+  /**
+   * The name with which the codec is looked up.
+   *
+   * @return The name.
+   */
+  String name();
+}
@@ -0,0 +1,216 @@
+package net.pincette.io;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+import static java.util.zip.Deflater.DEFAULT_STRATEGY;
+import static net.pincette.io.CodecBuffers.grow;
+import static net.pincette.io.CodecBuffers.initialSize;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.pincette.util.Util.GeneralException;
+
+/**
+ * The DEFLATE codec with the zlib wrapper or without any wrapper. It keeps a bounded pool of
+ * <code>Deflater</code> and <code>Inflater</code> instances, because each of them holds native
+ * memory, which is only released when it is ended.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class DeflateCodec implements CompressionCodec {
+  private static final int POOL_SIZE = getRuntime().availableProcessors() * 2;
+
+  private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger deflatersSize = new AtomicInteger();
+  private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inflatersSize = new AtomicInteger();
+  private final int level;
+  private final boolean nowrap;
+  private final int strategy;
+
+  /** Creates a zlib codec with the default compression level and strategy. */
+  public DeflateCodec() {
+    this(DEFAULT_COMPRESSION, DEFAULT_STRATEGY, false);
+  }
+
+  /**
+   * Creates a codec.
+   *
+   * @param level the compression level, which goes from 0 to 9 or is -1 for the default.
+   * @param strategy one of the strategies of <code>Deflater</code>.
+   * @param nowrap when set there is no zlib header and trailer, which is what GZIP needs.
+   */
+  public DeflateCodec(final int level, final int strategy, final boolean nowrap) {
+    this.level = level;
+    this.strategy = strategy;
+    this.nowrap = nowrap;
+  }
+
+  private static <T> T borrow(final Queue<T> pool, final AtomicInteger size) {
+    final T result = pool.poll();
+
+    if (result != null) {
+      size.decrementAndGet();
+    }
+
+    return result;
+  }
+
+  private static <T> boolean giveBack(final Queue<T> pool, final AtomicInteger size, final T t) {
+    if (size.incrementAndGet() > POOL_SIZE) {
+      size.decrementAndGet();
+
+      return false;
+    }
+
+    pool.offer(t);
+
+    return true;
+  }
+
+  /**
+   * When <code>grow</code> is set a full buffer is replaced with a larger copy and the inflation
+   * continues in it. The returned buffer is the one that contains the output.
+   */
+  private static ByteBuffer inflate(
+      final Inflater inflater, final ByteBuffer in, final ByteBuffer out, final boolean grow)
+      throws DataFormatException {
+    ByteBuffer result = out;
+
+    inflater.setInput(in);
+
+    while (!inflater.finished()) {
+      if (inflater.needsInput() || inflater.needsDictionary()) {
+        throw new DataFormatException("The compressed data is incomplete.");
+      }
+
+      if (!result.hasRemaining()) {
+        if (!grow) {
+          throw new BufferOverflowException();
+        }
+
+        result = grow(result);
+      }
+
+      inflater.inflate(result);
+    }
+
+    return result;
+  }
+
+  @Override
+  public int compress(final ByteBuffer in, final ByteBuffer out) {
+    final Deflater deflater = deflater();
+
+    try {
+      final int start = out.position();
+
+      deflater.setInput(in);
+      deflater.finish();
+
+      while (!deflater.finished()) {
+        if (!out.hasRemaining()) {
+          throw new BufferOverflowException();
+        }
+
+        deflater.deflate(out);
+      }
+
+      return out.position() - start;
+    } finally {
+      release(deflater);
+    }
+  }
+
+  @Override
+  public int decompress(final ByteBuffer in, final ByteBuffer out) {
+    final int start = out.position();
+
+    inflate(in, out, false);
+
+    return out.position() - start;
+  }
+
+  /**
+   * Decompresses into a buffer that grows when needed, without starting over.
+   *
+   * @param in the compressed bytes.
+   * @return The decompressed bytes.
+   */
+  @Override
+  public ByteBuffer decompress(final ByteBuffer in) {
+    return inflate(in, ByteBuffer.allocate(initialSize(in, decompressedLengthHint(in))), true)
+        .flip();
+  }
+
+  private Deflater deflater() {
+    final Deflater deflater = borrow(deflaters, deflatersSize);
+
+    if (deflater != null) {
+      return deflater;
+    }
+
+    final Deflater result = new Deflater(level, nowrap);
+
+    result.setStrategy(strategy);
+
+    return result;
+  }
+
+  ByteBuffer inflate(final ByteBuffer in, final ByteBuffer out, final boolean grow) {
+    final Inflater inflater = inflater();
+
+    try {
+      return inflate(inflater, in, out, grow);
+    } catch (DataFormatException e) {
+      throw new GeneralException(e);
+    } finally {
+      release(inflater);
+    }
+  }
+
+  private Inflater inflater() {
+    final Inflater inflater = borrow(inflaters, inflatersSize);
+
+    return inflater != null ? inflater : new Inflater(nowrap);
+  }
+
+  /**
+   * Returns the zlib bound, plus the size of the zlib header and trailer.
+   *
+   * @param length the uncompressed size.
+   * @return The upper bound.
+   */
+  @Override
+  public int maxCompressedLength(final int length) {
+    return length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + (nowrap ? 0 : 6);
+  }
+
+  @Override
+  public String name() {
+    return nowrap ? "raw-deflate" : "deflate";
+  }
+
+  private void release(final Deflater deflater) {
+    deflater.reset();
+
+    if (!giveBack(deflaters, deflatersSize, deflater)) {
+      deflater.end();
+    }
+  }
+
+  private void release(final Inflater inflater) {
+    inflater.reset();
+
+    if (!giveBack(inflaters, inflatersSize, inflater)) {
+      inflater.end();
+    }
+  }
+}
@@ -1,79 +1,223 @@
 package net.pincette.io;
 
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.nio.ByteBuffer.wrap;
 import static java.nio.file.Files.delete;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.logging.Logger.getLogger;
 import static net.pincette.io.StreamConnector.copy;
-import static net.pincette.util.Util.tryToDoWithRethrow;
-import static net.pincette.util.Util.tryToGetRethrow;
+import static net.pincette.util.Util.tryToDo;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.function.Supplier;
-import java.util.zip.GZIPOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
 
 /**
- * Rotates the given file based on the size in bytes and the depth.
+ * Rotates the given file based on the size in bytes and the depth, and optionally on time. The
+ * written size is tracked in memory, so writing doesn't query the file system. A rotation only
+ * renames the file and opens a new one. The older generations are shifted and the renamed file is
+ * compressed to <code>&lt;file&gt;.1.gz</code> in the background. Those tasks run one after the
+ * other. Closing the stream waits for them. Renamed files that were left uncompressed, because the
+ * process stopped, are compressed when the file is opened for the first time.
  *
  * @author Werner Donné
  */
 public class FileRotateOutputStream extends OutputStream {
+  private static final Executor BACKGROUND =
+      runnable -> Thread.ofVirtual().name("file-rotate").start(runnable);
 
   private final int depth;
-  private final long size;
   private final File file;
-  private OutputStream out;
+  private final Duration interval;
+  private final byte[] single = new byte[1];
+  private final long size;
+  private FileChannel channel;
+  private boolean closed;
+  private CompletableFuture<Void> compression = completedFuture(null);
+  private long opened;
+  private boolean recovered;
+  private long written;
 
   public FileRotateOutputStream(final String filename, final int depth, final long size) {
     this(new File(filename), depth, size);
   }
 
   public FileRotateOutputStream(final File file, final int depth, final long size) {
+    this(file, depth, size, null);
+  }
+
+  /**
+   * Creates a stream that also rotates when the current file has been open for longer than <code>
+   * interval</code>. Both conditions are checked when something is written. An empty file is never
+   * rotated.
+   *
+   * @param file the file to write to.
+   * @param depth the number of compressed generations that are kept.
+   * @param size the maximum size of the file.
+   * @param interval the maximum time the file is written to. It may be <code>null</code>.
+   * @since 2.6
+   */
+  public FileRotateOutputStream(
+      final File file, final int depth, final long size, final Duration interval) {
     this.file = file;
     this.depth = depth;
     this.size = size;
+    this.interval = interval;
   }
 
+  /**
+   * Closes the file and waits for the pending compressions.
+   *
+   * @throws IOException when the file can't be closed.
+   */
   @Override
   public void close() throws IOException {
-    if (out != null) {
-      out.close();
-    }
-  }
+    closed = true;
 
-  @Override
-  public void flush() throws IOException {
-    if (out != null) {
-      out.flush();
+    if (channel != null) {
+      channel.close();
+      channel = null;
     }
-  }
 
-  private OutputStream rotate() throws IOException {
-    if (out != null) {
-      out.close();
-    }
+    compression.join();
+  }
 
+  private void compress(final Path rotated) throws IOException {
     for (int i = depth; i >= 1; --i) {
-      final File log = new File(file.getAbsolutePath() + "." + i + ".gz");
+      final File log = generation(i);
 
       if (log.exists()) {
         if (i == depth) {
           delete(log.toPath());
-        } else if (!log.renameTo(new File(file.getAbsolutePath() + "." + (i + 1) + ".gz"))) {
+        } else if (!log.renameTo(generation(i + 1))) {
           throw new IOException("Rename failed");
         }
       }
     }
 
-    tryToDoWithRethrow(
-        () -> new FileInputStream(file),
-        in ->
-            copy(in, new GZIPOutputStream(new FileOutputStream(file.getAbsolutePath() + ".1.gz"))));
+    final File compressed = generation(1);
 
-    delete(file.toPath());
+    try (InputStream in = new FileInputStream(rotated.toFile());
+        OutputStream out = new ParallelGzipOutputStream(new FileOutputStream(compressed))) {
+      copy(in, out);
+    } catch (IOException e) {
+      deleteIfExists(compressed.toPath());
+      throw e;
+    }
 
-    return new FileOutputStream(file);
+    delete(rotated);
+  }
+
+  private void compressInBackground(final Path rotated) {
+    compression =
+        compression.thenRunAsync(
+            () ->
+                tryToDo(
+                    () -> compress(rotated),
+                    e ->
+                        getLogger(getClass().getName())
+                            .log(Level.SEVERE, "Compression of " + rotated + " failed", e)),
+            BACKGROUND);
+  }
+
+  private void compressLeftovers() throws IOException {
+    final List<Path> leftovers = new ArrayList<>();
+    final String prefix = rotatedPrefix();
+
+    try (DirectoryStream<Path> paths =
+        newDirectoryStream(file.getAbsoluteFile().toPath().getParent())) {
+      paths.forEach(
+          path -> {
+            if (path.getFileName().toString().startsWith(prefix)) {
+              leftovers.add(path);
+            }
+          });
+    }
+
+    leftovers.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+    leftovers.forEach(this::compressInBackground);
+  }
+
+  private File generation(final int i) {
+    return new File(file.getAbsolutePath() + "." + i + ".gz");
+  }
+
+  /** Forces the written bytes to the storage device. */
+  void force() throws IOException {
+    if (channel != null) {
+      channel.force(false);
+    }
+  }
+
+  private boolean mustRotate(final long len) {
+    return written > 0
+        && (written + len > size
+            || (interval != null && currentTimeMillis() - opened >= interval.toMillis()));
+  }
+
+  private void open() throws IOException {
+    if (!recovered) {
+      recovered = true;
+      compressLeftovers();
+    }
+
+    channel = FileChannel.open(file.toPath(), CREATE, WRITE, APPEND);
+    written = channel.size();
+    opened = currentTimeMillis();
+  }
+
+  private void prepare(final long len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream Closed");
+    }
+
+    if (channel == null) {
+      open();
+    }
+
+    if (mustRotate(len)) {
+      rotate();
+    }
+  }
+
+  private void rotate() throws IOException {
+    final Path rotated = file.toPath().resolveSibling(rotatedPrefix() + nanoTime());
+
+    channel.close();
+    channel = null;
+
+    try {
+      move(file.toPath(), rotated);
+    } finally {
+      open();
+    }
+
+    compressInBackground(rotated);
+  }
+
+  private String rotatedPrefix() {
+    return file.getName() + ".rotated-";
   }
 
   @Override
@@ -83,20 +227,40 @@ public class FileRotateOutputStream extends OutputStream {
 
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
-    final Supplier<OutputStream> ifExceeded =
-        () -> file.length() + len > size ? tryToGetRethrow(this::rotate).orElse(null) : out;
+    write(wrap(b, off, len));
+  }
+
+  private void write(final ByteBuffer buffer) throws IOException {
+    prepare(buffer.remaining());
+
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer);
+    }
+  }
+
+  /**
+   * Writes the buffers with gathering writes. They all go to the same file, because a rotation
+   * can only happen before them.
+   */
+  void write(final ByteBuffer[] buffers, final int length) throws IOException {
+    long remaining = 0;
+
+    for (int i = 0; i < length; ++i) {
+      remaining += buffers[i].remaining();
+    }
+
+    prepare(remaining);
 
-    out =
-        !file.exists() || (out == null && file.length() + len <= size)
-            ? new FileOutputStream(file, true)
-            : ifExceeded.get();
+    while (remaining > 0) {
+      final long w = channel.write(buffers, 0, length);
 
-    if (out != null) {
-      out.write(b, off, len);
+      written += w;
+      remaining -= w;
     }
   }
 
   public void write(final int b) throws IOException {
-    write(new byte[] {(byte) b}, 0, 1);
+    single[0] = (byte) b;
+    write(single, 0, 1);
   }
 }
@@ -0,0 +1,209 @@
+package net.pincette.io;
+
+import static java.lang.Math.max;
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+import static java.util.zip.Deflater.DEFAULT_STRATEGY;
+import static net.pincette.io.CodecBuffers.initialSize;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+import net.pincette.util.Util.GeneralException;
+
+/**
+ * The GZIP codec of RFC 1952. It decompresses concatenated members, like <code>GZIPInputStream
+ * </code>. Bytes after the last member that don't start with the GZIP magic number are ignored.
+ * The uncompressed size in the trailer is used to size the output buffer, within bounds, because
+ * it can't be verified before the decompression.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class GzipCodec implements CompressionCodec {
+  private static final int FCOMMENT = 16;
+  private static final int FEXTRA = 4;
+  private static final int FHCRC = 2;
+  private static final int FNAME = 8;
+  private static final int HEADER_SIZE = 10;
+  private static final int MAGIC = 0x8b1f;
+  private static final int TRAILER_SIZE = 8;
+
+  private final DeflateCodec deflate;
+
+  /** Creates a codec with the default compression level and strategy. */
+  public GzipCodec() {
+    this(DEFAULT_COMPRESSION, DEFAULT_STRATEGY);
+  }
+
+  /**
+   * Creates a codec.
+   *
+   * @param level the compression level, which goes from 0 to 9 or is -1 for the default.
+   * @param strategy one of the strategies of <code>Deflater</code>.
+   */
+  public GzipCodec(final int level, final int strategy) {
+    deflate = new DeflateCodec(level, strategy, true);
+  }
+
+  private static void check(final boolean condition, final String message) {
+    if (!condition) {
+      throw new GeneralException(new ZipException(message));
+    }
+  }
+
+  // GZIP is little-endian, regardless of the byte order of the buffers.
+  private static int getInt(final ByteBuffer in) {
+    return getShort(in) | getShort(in) << 16;
+  }
+
+  private static int getShort(final ByteBuffer in) {
+    return (in.get() & 0xff) | (in.get() & 0xff) << 8;
+  }
+
+  private static boolean isMember(final ByteBuffer in) {
+    return in.remaining() >= 2
+        && ((in.get(in.position()) & 0xff) | (in.get(in.position() + 1) & 0xff) << 8) == MAGIC;
+  }
+
+  private static void putInt(final ByteBuffer out, final int value) {
+    out.put((byte) value)
+        .put((byte) (value >>> 8))
+        .put((byte) (value >>> 16))
+        .put((byte) (value >>> 24));
+  }
+
+  private static void skipHeader(final ByteBuffer in) {
+    check(in.remaining() >= HEADER_SIZE, "The GZIP header is incomplete.");
+    check(getShort(in) == MAGIC, "Not in GZIP format.");
+    check(in.get() == 8, "Unsupported compression method.");
+
+    final int flags = in.get();
+
+    in.position(in.position() + 6);
+
+    if ((flags & FEXTRA) != 0) {
+      check(in.remaining() >= 2, "The GZIP header is incomplete.");
+      skip(in, getShort(in));
+    }
+
+    if ((flags & FNAME) != 0) {
+      skipString(in);
+    }
+
+    if ((flags & FCOMMENT) != 0) {
+      skipString(in);
+    }
+
+    if ((flags & FHCRC) != 0) {
+      skip(in, 2);
+    }
+  }
+
+  private static void skip(final ByteBuffer in, final int length) {
+    check(in.remaining() >= length, "The GZIP header is incomplete.");
+    in.position(in.position() + length);
+  }
+
+  private static void skipString(final ByteBuffer in) {
+    while (in.hasRemaining()) {
+      if (in.get() == 0) {
+        return;
+      }
+    }
+
+    check(false, "The GZIP header is incomplete.");
+  }
+
+  @Override
+  public int compress(final ByteBuffer in, final ByteBuffer out) {
+    if (out.remaining() < HEADER_SIZE + TRAILER_SIZE) {
+      throw new BufferOverflowException();
+    }
+
+    final CRC32 crc = new CRC32();
+    final int length = in.remaining();
+    final int start = out.position();
+
+    crc.update(in.duplicate());
+    putInt(out, MAGIC | 8 << 16);
+    putInt(out, 0);
+    out.put((byte) 0).put((byte) 0xff);
+    deflate.compress(in, out);
+
+    if (out.remaining() < TRAILER_SIZE) {
+      throw new BufferOverflowException();
+    }
+
+    putInt(out, (int) crc.getValue());
+    putInt(out, length);
+
+    return out.position() - start;
+  }
+
+  @Override
+  public int decompress(final ByteBuffer in, final ByteBuffer out) {
+    final int start = out.position();
+
+    decompress(in, out, false);
+
+    return out.position() - start;
+  }
+
+  /**
+   * Decompresses into a buffer that grows when needed, without starting over.
+   *
+   * @param in the compressed bytes.
+   * @return The decompressed bytes.
+   */
+  @Override
+  public ByteBuffer decompress(final ByteBuffer in) {
+    return decompress(in, ByteBuffer.allocate(initialSize(in, decompressedLengthHint(in))), true)
+        .flip();
+  }
+
+  private ByteBuffer decompress(final ByteBuffer in, final ByteBuffer out, final boolean grow) {
+    final CRC32 crc = new CRC32();
+    ByteBuffer result = out;
+
+    do {
+      final int memberStart = result.position();
+
+      skipHeader(in);
+      result = deflate.inflate(in, result, grow);
+      check(in.remaining() >= TRAILER_SIZE, "The GZIP trailer is incomplete.");
+      crc.reset();
+      crc.update(result.duplicate().flip().position(memberStart));
+      check((int) crc.getValue() == getInt(in), "Corrupt GZIP trailer.");
+      check(result.position() - memberStart == getInt(in), "Corrupt GZIP trailer.");
+    } while (isMember(in));
+
+    in.position(in.limit());
+
+    return result;
+  }
+
+  /**
+   * Returns the uncompressed size in the trailer of the last member. This is exact for a single
+   * member of less than 4GB without trailing bytes, but it isn't verified.
+   *
+   * @param in the compressed bytes.
+   * @return The estimated size.
+   */
+  @Override
+  public int decompressedLengthHint(final ByteBuffer in) {
+    return in.remaining() >= HEADER_SIZE + TRAILER_SIZE
+        ? max(0, getInt(in.duplicate().position(in.limit() - 4)))
+        : CompressionCodec.super.decompressedLengthHint(in);
+  }
+
+  @Override
+  public int maxCompressedLength(final int length) {
+    return deflate.maxCompressedLength(length) + HEADER_SIZE + TRAILER_SIZE;
+  }
+
+  @Override
+  public String name() {
+    return "gzip";
+  }
+}
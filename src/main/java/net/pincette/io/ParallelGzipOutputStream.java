@@ -0,0 +1,177 @@
+package net.pincette.io;
+
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+import static java.util.zip.Deflater.DEFAULT_STRATEGY;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compresses with GZIP on several threads. The input is cut in blocks, which are compressed
+ * independently as separate GZIP members. The result is a standard multi-member GZIP stream, which
+ * <code>GZIPInputStream</code> reads as one. The compression ratio is a bit lower than with one
+ * member, because the blocks don't share their history.
+ *
+ * <p>The number of blocks that are being compressed at the same time is bounded, so the memory use
+ * doesn't depend on the size of the input.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+  private static final int DEFAULT_BLOCK_SIZE = 0x100000;
+
+  private final int blockSize;
+  private final CompressionCodec codec;
+  private final Executor executor;
+  private final int maxPending;
+  private final OutputStream out;
+  private final Deque<CompletableFuture<ByteBuffer>> pending = new ArrayDeque<>();
+  private byte[] block;
+  private boolean closed;
+  private int position;
+  private boolean written;
+
+  /**
+   * Creates a stream with blocks of 1MB, which are compressed on the common fork-join pool.
+   *
+   * @param out the stream that receives the compressed bytes.
+   */
+  public ParallelGzipOutputStream(final OutputStream out) {
+    this(out, DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a stream.
+   *
+   * @param out the stream that receives the compressed bytes.
+   * @param level the compression level, which goes from 0 to 9 or is -1 for the default.
+   * @param blockSize the number of uncompressed bytes per block.
+   * @param executor the executor that compresses the blocks.
+   * @throws IllegalArgumentException when the block size is not positive.
+   */
+  public ParallelGzipOutputStream(
+      final OutputStream out, final int level, final int blockSize, final Executor executor) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("The block size should be positive.");
+    }
+
+    this.out = out;
+    this.blockSize = blockSize;
+    this.executor = executor;
+    codec = new GzipCodec(level, DEFAULT_STRATEGY);
+    maxPending = getRuntime().availableProcessors() * 2;
+    block = new byte[blockSize];
+  }
+
+  private static IOException ioException(final CompletionException e) {
+    return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+  }
+
+  private void checkClosed() throws IOException {
+    if (closed) {
+      throw new IOException("The stream is closed.");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+
+      try {
+        if (position > 0 || !written) {
+          submit();
+        }
+
+        drain(0);
+        out.flush();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  private void drain(final int keep) throws IOException {
+    while (pending.size() > keep) {
+      final ByteBuffer compressed;
+
+      try {
+        compressed = pending.removeFirst().join();
+      } catch (CompletionException e) {
+        throw ioException(e);
+      }
+
+      out.write(compressed.array(), compressed.arrayOffset(), compressed.limit());
+    }
+  }
+
+  /**
+   * Compresses the bytes that were written so far as a member and writes out all pending members.
+   *
+   * @throws IOException when the underlying stream can't be written.
+   */
+  @Override
+  public void flush() throws IOException {
+    checkClosed();
+
+    if (position > 0) {
+      submit();
+    }
+
+    drain(0);
+    out.flush();
+  }
+
+  private void submit() throws IOException {
+    final ByteBuffer input = ByteBuffer.wrap(block, 0, position);
+
+    pending.addLast(supplyAsync(() -> codec.compress(input), executor));
+    written = true;
+    block = new byte[blockSize];
+    position = 0;
+    drain(maxPending);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkClosed();
+
+    if (position == block.length) {
+      submit();
+    }
+
+    block[position++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    checkFromIndexSize(off, len, b.length);
+    checkClosed();
+
+    int i = off;
+
+    while (i < off + len) {
+      if (position == block.length) {
+        submit();
+      }
+
+      final int length = min(block.length - position, off + len - i);
+
+      System.arraycopy(b, i, block, position, length);
+      position += length;
+      i += length;
+    }
+  }
+}
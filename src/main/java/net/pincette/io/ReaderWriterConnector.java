@@ -1,8 +1,22 @@
 package net.pincette.io;
 
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.Set;
 
 /**
  * This class reads data from reader and writes it to writer in a separate thread. The thread stops
@@ -11,8 +25,23 @@ import java.io.Writer;
  * @author Werner Donné
  */
 public class ReaderWriterConnector {
+  private static final Set<String> ASCII_COMPATIBLE =
+      Set.of(
+          US_ASCII.name(), ISO_8859_1.name(), UTF_8.name(), "ISO-8859-15", "windows-1252");
+  private static final int BUFFER_SIZE = 0x10000;
+
   private ReaderWriterConnector() {}
 
+  private static boolean asciiCompatible(final Charset charset) {
+    return ASCII_COMPATIBLE.contains(charset.name());
+  }
+
+  private static void check(final CoderResult result) throws IOException {
+    if (result.isError()) {
+      result.throwException();
+    }
+  }
+
   /**
    * Closes <code>in</code> and <code>out</code> after copying.
    *
@@ -27,9 +56,20 @@ public class ReaderWriterConnector {
   public static void copy(
       final Reader in, final Writer out, final boolean closeInput, final boolean closeOutput)
       throws IOException {
-    copy(in, out, 0x10000, closeInput, closeOutput);
+    copy(in, out, BUFFER_SIZE, closeInput, closeOutput);
   }
 
+  /**
+   * Copies <code>in</code> to <code>out</code>. The writer is flushed at the end when it is not
+   * closed.
+   *
+   * @param in the consumed reader.
+   * @param out the writer to which the data is written.
+   * @param bufferSize the size of the chunks.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @throws IOException when something goes wrong.
+   */
   public static void copy(
       final Reader in,
       final Writer out,
@@ -42,8 +82,149 @@ public class ReaderWriterConnector {
 
     while ((len = in.read(buffer)) != -1) {
       out.write(buffer, 0, len);
+    }
+
+    if (closeInput) {
+      in.close();
+    }
+
+    if (closeOutput) {
+      out.close();
+    } else {
       out.flush();
     }
+  }
+
+  /** Encodes the characters from the start of the buffer and keeps the remainder there. */
+  private static long encode(
+      final CharsetEncoder encoder,
+      final CharBuffer chars,
+      final ByteBuffer output,
+      final OutputStream out,
+      final boolean endOfInput)
+      throws IOException {
+    CoderResult encoded;
+    long written = 0;
+
+    chars.flip();
+
+    while ((encoded = encoder.encode(chars, output, endOfInput)).isOverflow()) {
+      written += write(output, out);
+    }
+
+    check(encoded);
+    chars.compact();
+
+    return written;
+  }
+
+  private static boolean isAscii(final ByteBuffer buffer) {
+    final byte[] array = buffer.array();
+    final int end = buffer.arrayOffset() + buffer.limit();
+
+    for (int i = buffer.arrayOffset() + buffer.position(); i < end; ++i) {
+      if (array[i] < 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Transcodes the bytes of <code>in</code> to <code>out</code> and closes them.
+   *
+   * @param in the consumed input stream.
+   * @param from the encoding of <code>in</code>.
+   * @param out the stream the data is written to.
+   * @param to the encoding of <code>out</code>.
+   * @return The number of written bytes.
+   * @throws IOException when something goes wrong.
+   * @see #transcode(InputStream, Charset, OutputStream, Charset, boolean, boolean)
+   * @since 2.6
+   */
+  public static long transcode(
+      final InputStream in, final Charset from, final OutputStream out, final Charset to)
+      throws IOException {
+    return transcode(in, from, out, to, true, true);
+  }
+
+  /**
+   * Transcodes the bytes of <code>in</code> to <code>out</code>, without the layers of a reader and
+   * a writer. The decoder and encoder work directly on reused buffers. When both encodings are
+   * supersets of ASCII, chunks that contain only ASCII are written as they are. Malformed input and
+   * unmappable characters are replaced, as with <code>InputStreamReader</code> and <code>
+   * OutputStreamWriter</code>. The output stream is flushed at the end when it is not closed.
+   *
+   * @param in the consumed input stream.
+   * @param from the encoding of <code>in</code>.
+   * @param out the stream the data is written to.
+   * @param to the encoding of <code>out</code>.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @return The number of written bytes.
+   * @throws IOException when something goes wrong.
+   * @since 2.6
+   */
+  public static long transcode(
+      final InputStream in,
+      final Charset from,
+      final OutputStream out,
+      final Charset to,
+      final boolean closeInput,
+      final boolean closeOutput)
+      throws IOException {
+    final CharsetDecoder decoder =
+        from.newDecoder().onMalformedInput(REPLACE).onUnmappableCharacter(REPLACE);
+    final CharsetEncoder encoder =
+        to.newEncoder().onMalformedInput(REPLACE).onUnmappableCharacter(REPLACE);
+    final boolean fast = asciiCompatible(from) && asciiCompatible(to);
+    final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    final ByteBuffer output = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()));
+    long result = 0;
+    boolean eof = false;
+
+    while (!eof) {
+      final int read = in.read(input.array(), input.position(), input.remaining());
+
+      eof = read == -1;
+
+      if (!eof) {
+        input.position(input.position() + read);
+      }
+
+      input.flip();
+
+      if (fast && !eof && chars.position() == 0 && isAscii(input)) {
+        result += write(output, out);
+        out.write(input.array(), input.position(), input.remaining());
+        result += input.remaining();
+        input.position(input.limit());
+      } else {
+        CoderResult decoded;
+
+        do {
+          decoded = decoder.decode(input, chars, eof);
+          check(decoded);
+          result += encode(encoder, chars, output, out, false);
+        } while (decoded.isOverflow());
+      }
+
+      input.compact();
+    }
+
+    check(decoder.flush(chars));
+    result += encode(encoder, chars, output, out, true);
+
+    CoderResult flushed;
+
+    while ((flushed = encoder.flush(output)).isOverflow()) {
+      result += write(output, out);
+    }
+
+    check(flushed);
+    result += write(output, out);
 
     if (closeInput) {
       in.close();
@@ -54,5 +235,16 @@ public class ReaderWriterConnector {
     } else {
       out.flush();
     }
+
+    return result;
+  }
+
+  private static int write(final ByteBuffer output, final OutputStream out) throws IOException {
+    final int length = output.position();
+
+    out.write(output.array(), 0, length);
+    output.clear();
+
+    return length;
   }
 }
@@ -1,17 +1,63 @@
 package net.pincette.io;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
- * Copies an input stream to an output stream.
+ * Copies an input stream to an output stream. When both ends are plain file streams and the input
+ * is a regular file, the operating system does the copying. When the input stream has its own
+ * <code>transferTo</code> implementation, which doesn't bypass an overridden <code>read</code>, it
+ * is used. Otherwise a buffer of the thread is reused.
+ *
+ * <p>Unless asked explicitly, the output stream is flushed only once at the end, which avoids a
+ * system call per chunk on buffered streams.
  *
  * @author Werner Donné
  */
 public class StreamConnector {
+  private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<>();
+  private static final int DEFAULT_BUFFER_SIZE = 0x10000;
+  private static final ClassValue<Boolean> OVERRIDES_TRANSFER_TO =
+      new ClassValue<>() {
+        // File streams are left to the file case, which checks if the input can be positioned.
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+          try {
+            final Class<?> transfer =
+                type.getMethod("transferTo", OutputStream.class).getDeclaringClass();
+
+            return transfer != InputStream.class
+                && !FileInputStream.class.isAssignableFrom(type)
+                && type.getMethod("read", byte[].class, int.class, int.class)
+                    .getDeclaringClass()
+                    .isAssignableFrom(transfer);
+          } catch (NoSuchMethodException e) {
+            return false;
+          }
+        }
+      };
+
   private StreamConnector() {}
 
+  private static byte[] borrowBuffer(final int size) {
+    final byte[] buffer = BUFFER.get();
+
+    if (buffer != null && buffer.length == size) {
+      BUFFER.remove();
+
+      return buffer;
+    }
+
+    return new byte[size];
+  }
+
   /**
    * Closes <code>in</code> and <code>out</code> after copying.
    *
@@ -23,15 +69,36 @@ public class StreamConnector {
     copy(in, out, true, true);
   }
 
+  /**
+   * Copies <code>in</code> to <code>out</code>. The output stream is flushed at the end when it is
+   * not closed.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @throws IOException when something goes wrong.
+   */
   public static void copy(
       final InputStream in,
       final OutputStream out,
       final boolean closeInput,
       final boolean closeOutput)
       throws IOException {
-    copy(in, out, 0x10000, closeInput, closeOutput);
+    copy(in, out, DEFAULT_BUFFER_SIZE, closeInput, closeOutput);
   }
 
+  /**
+   * Copies <code>in</code> to <code>out</code>.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @param flush when set <code>out</code> is flushed after every chunk, otherwise it is never
+   *     flushed.
+   * @throws IOException when something goes wrong.
+   */
   public static void copy(
       final InputStream in,
       final OutputStream out,
@@ -39,9 +106,20 @@ public class StreamConnector {
       final boolean closeOutput,
       final boolean flush)
       throws IOException {
-    copy(in, out, 0x10000, closeInput, closeOutput, flush);
+    copy(in, out, DEFAULT_BUFFER_SIZE, closeInput, closeOutput, flush);
   }
 
+  /**
+   * Copies <code>in</code> to <code>out</code>. The output stream is flushed at the end when it is
+   * not closed.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @param bufferSize the size of the chunks.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @throws IOException when something goes wrong.
+   */
   public static void copy(
       final InputStream in,
       final OutputStream out,
@@ -49,9 +127,21 @@ public class StreamConnector {
       final boolean closeInput,
       final boolean closeOutput)
       throws IOException {
-    copy(in, out, bufferSize, closeInput, closeOutput, true);
+    copy(in, out, bufferSize, closeInput, closeOutput, false, true);
   }
 
+  /**
+   * Copies <code>in</code> to <code>out</code>.
+   *
+   * @param in the consumed input stream.
+   * @param out the stream the data is written to.
+   * @param bufferSize the size of the chunks.
+   * @param closeInput closes <code>in</code> at the end.
+   * @param closeOutput closes <code>out</code> at the end.
+   * @param flush when set <code>out</code> is flushed after every chunk, otherwise it is never
+   *     flushed.
+   * @throws IOException when something goes wrong.
+   */
   public static void copy(
       final InputStream in,
       final OutputStream out,
@@ -60,15 +150,29 @@ public class StreamConnector {
       final boolean closeOutput,
       final boolean flush)
       throws IOException {
-    final byte[] buffer = new byte[bufferSize];
-    int len;
-
-    while ((len = in.read(buffer)) != -1) {
-      out.write(buffer, 0, len);
+    copy(in, out, bufferSize, closeInput, closeOutput, flush, flush);
+  }
 
-      if (flush) {
-        out.flush();
-      }
+  private static void copy(
+      final InputStream in,
+      final OutputStream out,
+      final int bufferSize,
+      final boolean closeInput,
+      final boolean closeOutput,
+      final boolean flushChunks,
+      final boolean flushAtEnd)
+      throws IOException {
+    if (flushChunks) {
+      copyChunks(in, out, bufferSize, true);
+    } else if (in.getClass() == FileInputStream.class
+        && out.getClass() == FileOutputStream.class
+        && isRegularFile(((FileInputStream) in).getChannel())) {
+      transferTo(((FileInputStream) in).getChannel(), ((FileOutputStream) out).getChannel());
+      copyChunks(in, out, bufferSize, false);
+    } else if (bufferSize == DEFAULT_BUFFER_SIZE && OVERRIDES_TRANSFER_TO.get(in.getClass())) {
+      in.transferTo(out);
+    } else {
+      copyChunks(in, out, bufferSize, false);
     }
 
     if (closeInput) {
@@ -77,10 +181,126 @@ public class StreamConnector {
 
     if (closeOutput) {
       out.close();
-    } else {
+    } else if (flushAtEnd) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Copies <code>in</code> to <code>out</code> without closing them. When <code>in</code> is a
+   * <code>FileChannel</code> of a regular file, or when only <code>out</code> is one, the operating
+   * system does the copying. Otherwise, and for what remains after a file has changed during the
+   * copy, a direct buffer from {@link ByteBufferPool#direct()} is used.
+   *
+   * @param in the consumed channel.
+   * @param out the channel the data is written to.
+   * @return The number of copied bytes.
+   * @throws IOException when something goes wrong.
+   * @since 2.6
+   */
+  public static long copy(final ReadableByteChannel in, final WritableByteChannel out)
+      throws IOException {
+    if (in instanceof FileChannel f && isRegularFile(f)) {
+      return transferTo(f, out) + copyBuffered(in, out);
+    }
+
+    if (out instanceof FileChannel f && !(in instanceof FileChannel)) {
+      return transferFrom(in, f);
+    }
+
+    return copyBuffered(in, out);
+  }
+
+  private static long copyBuffered(final ReadableByteChannel in, final WritableByteChannel out)
+      throws IOException {
+    final ByteBuffer buffer = ByteBufferPool.direct().acquire(DEFAULT_BUFFER_SIZE);
+    long result = 0;
+
+    try {
+      while (in.read(buffer) != -1) {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+          result += out.write(buffer);
+        }
+
+        buffer.clear();
+      }
+    } finally {
+      ByteBufferPool.direct().release(buffer);
+    }
+
+    return result;
+  }
+
+  private static void copyChunks(
+      final InputStream in, final OutputStream out, final int bufferSize, final boolean flush)
+      throws IOException {
+    final byte[] buffer = borrowBuffer(bufferSize);
+    int len;
+
+    while ((len = in.read(buffer)) != -1) {
+      out.write(buffer, 0, len);
+
       if (flush) {
         out.flush();
       }
     }
+
+    returnBuffer(buffer);
+  }
+
+  /**
+   * Files that report no size, such as those in <code>/proc</code>, and channels that can't be
+   * positioned, such as pipes, are not copied with positional transfers.
+   */
+  private static boolean isRegularFile(final FileChannel channel) {
+    try {
+      return channel.size() > 0 && channel.position() >= 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static void returnBuffer(final byte[] buffer) {
+    if (buffer.length == DEFAULT_BUFFER_SIZE) {
+      BUFFER.set(buffer);
+    }
+  }
+
+  /** Starts at the current position of <code>out</code> and moves it to the end of the data. */
+  private static long transferFrom(final ReadableByteChannel in, final FileChannel out)
+      throws IOException {
+    final long start = out.position();
+    long position = start;
+    long transferred;
+
+    while ((transferred = out.transferFrom(in, position, DEFAULT_BUFFER_SIZE * 16L)) > 0) {
+      position += transferred;
+    }
+
+    out.position(position);
+
+    return position - start;
+  }
+
+  /**
+   * Starts at the current position of <code>in</code> and moves it to the size the file had at the
+   * start, or less when the file has shrunk.
+   */
+  private static long transferTo(final FileChannel in, final WritableByteChannel out)
+      throws IOException {
+    final long start = in.position();
+    final long size = in.size();
+    long position = start;
+    long transferred;
+
+    while (position < size && (transferred = in.transferTo(position, size - position, out)) > 0) {
+      position += transferred;
+    }
+
+    in.position(position);
+
+    return position - start;
   }
 }
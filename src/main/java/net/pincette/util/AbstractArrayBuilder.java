@@ -0,0 +1,234 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkIndex;
+
+/**
+ * The common part of the array builders. The backing array grows geometrically, so appending an
+ * element costs amortised constant time, unlike the functions in {@link Array}, which allocate a
+ * new array for each call.
+ *
+ * @param <A> the array type.
+ * @param <B> the builder type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public abstract class AbstractArrayBuilder<A, B extends AbstractArrayBuilder<A, B>> {
+  private A array;
+  private int capacity;
+  private int size;
+
+  /**
+   * Creates a builder with an initial backing array.
+   *
+   * @param array the initial backing array, the length of which is the initial capacity.
+   */
+  protected AbstractArrayBuilder(final A array) {
+    this.array = array;
+    capacity = java.lang.reflect.Array.getLength(array);
+  }
+
+  /**
+   * Appends all elements of <code>values</code>.
+   *
+   * @param values an array of the same type as the built one.
+   * @return The builder itself.
+   */
+  public B appendAll(final A values) {
+    return appendAll(values, 0, java.lang.reflect.Array.getLength(values));
+  }
+
+  /**
+   * Appends <code>length</code> elements of <code>values</code>, starting at <code>offset</code>.
+   *
+   * @param values an array of the same type as the built one.
+   * @param offset the start position in <code>values</code>.
+   * @param length the number of elements to append.
+   * @return The builder itself.
+   */
+  public B appendAll(final A values, final int offset, final int length) {
+    ensureCapacity(size + length);
+    System.arraycopy(values, offset, array, size, length);
+    size += length;
+
+    return self();
+  }
+
+  /**
+   * Returns the backing array. Only the positions below the size are in use.
+   *
+   * @return The backing array.
+   */
+  protected A array() {
+    return array;
+  }
+
+  /**
+   * Returns the built array, the length of which is the number of elements in the builder. When the
+   * backing array happens to have the right length it is returned without copying. The builder is
+   * empty afterwards.
+   *
+   * @return The built array.
+   */
+  public A build() {
+    final A result = size == capacity ? array : toArray();
+
+    capacity = 0;
+    array = newArray(0);
+    size = 0;
+
+    return result;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  protected void checkElementIndex(final int index) {
+    checkIndex(index, size);
+  }
+
+  public B clear() {
+    release(0, size);
+    size = 0;
+
+    return self();
+  }
+
+  /**
+   * Makes sure the backing array can hold at least <code>minimum</code> elements.
+   *
+   * @param minimum the required capacity.
+   * @return The builder itself.
+   */
+  public B ensureCapacity(final int minimum) {
+    if (minimum > capacity) {
+      final int newCapacity = max(minimum, capacity + (capacity >> 1) + 8);
+      final A newArray = newArray(newCapacity);
+
+      System.arraycopy(array, 0, newArray, 0, size);
+      array = newArray;
+      capacity = newCapacity;
+    }
+
+    return self();
+  }
+
+  /**
+   * Adds an element at the end and returns its position. The backing array may be replaced, so it
+   * should be fetched after the call.
+   *
+   * @return The position of the new element.
+   */
+  protected int extend() {
+    ensureCapacity(size + 1);
+
+    return size++;
+  }
+
+  /**
+   * Inserts all elements of <code>values</code> at <code>position</code>.
+   *
+   * @param position the insertion point, which may be equal to the size.
+   * @param values an array of the same type as the built one.
+   * @return The builder itself.
+   */
+  public B insertAll(final int position, final A values) {
+    return insertAll(position, values, 0, java.lang.reflect.Array.getLength(values));
+  }
+
+  /**
+   * Inserts <code>length</code> elements of <code>values</code>, starting at <code>offset</code>,
+   * at <code>position</code>.
+   *
+   * @param position the insertion point, which may be equal to the size.
+   * @param values an array of the same type as the built one.
+   * @param offset the start position in <code>values</code>.
+   * @param length the number of elements to insert.
+   * @return The builder itself.
+   */
+  public B insertAll(final int position, final A values, final int offset, final int length) {
+    checkIndex(position, size + 1);
+    ensureCapacity(size + length);
+    System.arraycopy(array, position, array, position + length, size - position);
+    System.arraycopy(values, offset, array, position, length);
+    size += length;
+
+    return self();
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  protected abstract A newArray(final int length);
+
+  protected void openGap(final int position) {
+    checkIndex(position, size + 1);
+    ensureCapacity(size + 1);
+    System.arraycopy(array, position, array, position + 1, size - position);
+    ++size;
+  }
+
+  /**
+   * Removes <code>length</code> elements, starting at <code>position</code>.
+   *
+   * @param position the position of the first removed element.
+   * @param length the number of elements to remove.
+   * @return The builder itself.
+   */
+  public B remove(final int position, final int length) {
+    checkFromIndexSize(position, length, size);
+    System.arraycopy(array, position + length, array, position, size - position - length);
+    release(size - length, size);
+    size -= length;
+
+    return self();
+  }
+
+  /**
+   * Is called when the elements from <code>from</code> up to <code>to</code> are no longer used.
+   * Builders of reference types should clear them.
+   *
+   * @param from the first position.
+   * @param to the position after the last one.
+   */
+  protected void release(final int from, final int to) {}
+
+  @SuppressWarnings("unchecked")
+  protected B self() {
+    return (B) this;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a copy of the elements in the builder. The builder remains as it is.
+   *
+   * @return The new array.
+   */
+  public A toArray() {
+    final A result = newArray(size);
+
+    System.arraycopy(array, 0, result, 0, size);
+
+    return result;
+  }
+
+  /**
+   * Reduces the number of elements to <code>length</code>.
+   *
+   * @param length the new size, which can't be larger than the current one.
+   * @return The builder itself.
+   */
+  public B truncate(final int length) {
+    checkIndex(length, size + 1);
+    release(length, size);
+    size = length;
+
+    return self();
+  }
+}
@@ -1,5 +1,11 @@
 package net.pincette.util;
 
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
+
+import java.util.Arrays;
+import java.util.Objects;
+
 /** @author Werner Donné */
 public class Array {
   private Array() {}
@@ -202,116 +208,61 @@ public class Array {
     return hasSlice(array1, array2, 0, array2.length);
   }
 
+  /**
+   * Checks if <code>array</code> contains the first <code>len</code> elements of <code>slice
+   * </code> at <code>position</code>. The elements are compared with <code>Objects.equals</code>.
+   *
+   * @param array the array that is searched.
+   * @param slice the array with the elements to look for.
+   * @param position the position in <code>array</code> where the slice should start.
+   * @param len the number of elements of <code>slice</code> to compare.
+   * @return The comparison result.
+   */
   public static boolean hasSlice(
       final Object[] array, final Object[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if ((array[i + position] == null && slice[i] != null)
-          || (array[i + position] != null && slice[i] == null)
-          || !array[i + position].equals(slice[i])) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final boolean[] array, final boolean[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final byte[] array, final byte[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final char[] array, final char[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final short[] array, final short[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final int[] array, final int[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final long[] array, final long[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
-      return false;
-    }
-
-    for (int i = 0; i < len; ++i) {
-      if (array[i + position] != slice[i]) {
-        return false;
-      }
-    }
-
-    return true;
+    return inRange(array.length, slice.length, position, len)
+        && Arrays.equals(array, position, position + len, slice, 0, len);
   }
 
   public static boolean hasSlice(
       final float[] array, final float[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
+    if (!inRange(array.length, slice.length, position, len)) {
       return false;
     }
 
@@ -326,7 +277,7 @@ public class Array {
 
   public static boolean hasSlice(
       final double[] array, final double[] slice, final int position, final int len) {
-    if (position + len > array.length || len > slice.length) {
+    if (!inRange(array.length, slice.length, position, len)) {
       return false;
     }
 
@@ -413,7 +364,7 @@ public class Array {
 
   public static int indexOf(final Object[] array, final Object object) {
     for (int i = 0; i < array.length; ++i) {
-      if (array[i].equals(object)) {
+      if (Objects.equals(array[i], object)) {
         return i;
       }
     }
@@ -432,7 +383,25 @@ public class Array {
   }
 
   public static int indexOf(final byte[] array, final byte b) {
-    for (int i = 0; i < array.length; ++i) {
+    return indexOf(array, b, 0);
+  }
+
+  /**
+   * Finds the first occurrence of <code>b</code> in <code>array</code>, starting at <code>
+   * fromIndex</code>.
+   *
+   * @param array the array that is searched.
+   * @param b the value to look for.
+   * @param fromIndex the position where the search starts.
+   * @return The position of the value or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final byte[] array, final byte b, final int fromIndex) {
+    return indexOf(array, b, fromIndex, array.length);
+  }
+
+  static int indexOf(final byte[] array, final byte b, final int fromIndex, final int toIndex) {
+    for (int i = max(fromIndex, 0); i < toIndex; ++i) {
       if (array[i] == b) {
         return i;
       }
@@ -442,7 +411,25 @@ public class Array {
   }
 
   public static int indexOf(final char[] array, final char c) {
-    for (int i = 0; i < array.length; ++i) {
+    return indexOf(array, c, 0);
+  }
+
+  /**
+   * Finds the first occurrence of <code>c</code> in <code>array</code>, starting at <code>
+   * fromIndex</code>.
+   *
+   * @param array the array that is searched.
+   * @param c the value to look for.
+   * @param fromIndex the position where the search starts.
+   * @return The position of the value or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final char[] array, final char c, final int fromIndex) {
+    return indexOf(array, c, fromIndex, array.length);
+  }
+
+  static int indexOf(final char[] array, final char c, final int fromIndex, final int toIndex) {
+    for (int i = max(fromIndex, 0); i < toIndex; ++i) {
       if (array[i] == c) {
         return i;
       }
@@ -501,6 +488,134 @@ public class Array {
     return -1;
   }
 
+  /**
+   * Finds the first occurrence of <code>slice</code> in <code>array</code>.
+   *
+   * @param array the array that is searched.
+   * @param slice the sequence to look for.
+   * @return The position of the slice or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final byte[] array, final byte[] slice) {
+    return indexOf(array, slice, 0);
+  }
+
+  /**
+   * Finds the first occurrence of <code>slice</code> in <code>array</code>, starting at <code>
+   * fromIndex</code>. It uses the Boyer-Moore-Horspool algorithm, which skips over large parts of
+   * the array when the slice is longer.
+   *
+   * @param array the array that is searched.
+   * @param slice the sequence to look for.
+   * @param fromIndex the position where the search starts.
+   * @return The position of the slice or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final byte[] array, final byte[] slice, final int fromIndex) {
+    return indexOf(array, slice, fromIndex, array.length);
+  }
+
+  static int indexOf(
+      final byte[] array, final byte[] slice, final int fromIndex, final int toIndex) {
+    final int start = max(fromIndex, 0);
+    final int m = slice.length;
+
+    if (m < 2) {
+      return m == 0 ? emptySliceIndex(toIndex, start) : indexOf(array, slice[0], start, toIndex);
+    }
+
+    final int[] shift = new int[256];
+    final int lastIndex = m - 1;
+    final byte last = slice[lastIndex];
+
+    fill(shift, m);
+
+    for (int i = 0; i < lastIndex; ++i) {
+      shift[slice[i] & 0xff] = lastIndex - i;
+    }
+
+    for (int i = start; i <= toIndex - m; ) {
+      final byte b = array[i + lastIndex];
+
+      if (b == last && Arrays.equals(array, i, i + lastIndex, slice, 0, lastIndex)) {
+        return i;
+      }
+
+      i += shift[b & 0xff];
+    }
+
+    return -1;
+  }
+
+  /**
+   * Finds the first occurrence of <code>slice</code> in <code>array</code>.
+   *
+   * @param array the array that is searched.
+   * @param slice the sequence to look for.
+   * @return The position of the slice or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final char[] array, final char[] slice) {
+    return indexOf(array, slice, 0);
+  }
+
+  /**
+   * Finds the first occurrence of <code>slice</code> in <code>array</code>, starting at <code>
+   * fromIndex</code>. It uses the Boyer-Moore-Horspool algorithm with a shift table that is indexed
+   * by the low byte of the characters.
+   *
+   * @param array the array that is searched.
+   * @param slice the sequence to look for.
+   * @param fromIndex the position where the search starts.
+   * @return The position of the slice or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public static int indexOf(final char[] array, final char[] slice, final int fromIndex) {
+    return indexOf(array, slice, fromIndex, array.length);
+  }
+
+  static int indexOf(
+      final char[] array, final char[] slice, final int fromIndex, final int toIndex) {
+    final int start = max(fromIndex, 0);
+    final int m = slice.length;
+
+    if (m < 2) {
+      return m == 0 ? emptySliceIndex(toIndex, start) : indexOf(array, slice[0], start, toIndex);
+    }
+
+    final int[] shift = new int[256];
+    final int lastIndex = m - 1;
+    final char last = slice[lastIndex];
+
+    fill(shift, m);
+
+    // Characters that share the low byte get the smallest shift, which is always safe.
+    for (int i = 0; i < lastIndex; ++i) {
+      shift[slice[i] & 0xff] = lastIndex - i;
+    }
+
+    for (int i = start; i <= toIndex - m; ) {
+      final char c = array[i + lastIndex];
+
+      if (c == last && Arrays.equals(array, i, i + lastIndex, slice, 0, lastIndex)) {
+        return i;
+      }
+
+      i += shift[c & 0xff];
+    }
+
+    return -1;
+  }
+
+  private static int emptySliceIndex(final int length, final int start) {
+    return start <= length ? start : -1;
+  }
+
+  private static boolean inRange(
+      final int arrayLength, final int sliceLength, final int position, final int len) {
+    return position >= 0 && len >= 0 && position + len <= arrayLength && len <= sliceLength;
+  }
+
   public static <T> T[] insert(final T[] array, final int pos, final T object) {
     final T[] newArray = newArray(array, array.length + 1);
 
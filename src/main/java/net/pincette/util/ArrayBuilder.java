@@ -0,0 +1,77 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
+
+import java.util.function.IntFunction;
+
+/**
+ * Builds an object array with amortised geometric growth.
+ *
+ * @param <T> the element type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ArrayBuilder<T> extends AbstractArrayBuilder<T[], ArrayBuilder<T>> {
+  private final IntFunction<T[]> generator;
+
+  /**
+   * Creates a builder.
+   *
+   * @param generator the function that creates an array of the given length, for example <code>
+   *     String[]::new</code>.
+   */
+  public ArrayBuilder(final IntFunction<T[]> generator) {
+    this(generator, 16);
+  }
+
+  /**
+   * Creates a builder.
+   *
+   * @param generator the function that creates an array of the given length, for example <code>
+   *     String[]::new</code>.
+   * @param capacity the initial capacity.
+   */
+  public ArrayBuilder(final IntFunction<T[]> generator, final int capacity) {
+    super(generator.apply(max(capacity, 0)));
+    this.generator = generator;
+  }
+
+  public ArrayBuilder<T> append(final T object) {
+    final int position = extend();
+
+    array()[position] = object;
+
+    return this;
+  }
+
+  public T get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public ArrayBuilder<T> insert(final int position, final T object) {
+    openGap(position);
+    array()[position] = object;
+
+    return this;
+  }
+
+  @Override
+  protected T[] newArray(final int length) {
+    return generator.apply(length);
+  }
+
+  @Override
+  protected void release(final int from, final int to) {
+    fill(array(), from, to, null);
+  }
+
+  public ArrayBuilder<T> set(final int index, final T object) {
+    checkElementIndex(index);
+    array()[index] = object;
+
+    return this;
+  }
+}
@@ -0,0 +1,203 @@
+package net.pincette.util;
+
+import static java.util.Arrays.copyOfRange;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkFromToIndex;
+import static java.util.Objects.checkIndex;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A view on a range of an object array. Taking a part of it doesn't copy anything. Only
+ * {@link #toArray()} does.
+ *
+ * @param <T> the element type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ArraySlice<T> {
+  private final T[] array;
+  private final int length;
+  private final int offset;
+
+  public ArraySlice(final T[] array) {
+    this(array, 0, array.length);
+  }
+
+  /**
+   * Creates a view.
+   *
+   * @param array the backing array.
+   * @param offset the start of the view in the array.
+   * @param length the number of elements in the view.
+   */
+  public ArraySlice(final T[] array, final int offset, final int length) {
+    checkFromIndexSize(offset, length, array.length);
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  public static <T> ArraySlice<T> of(final T[] array) {
+    return new ArraySlice<>(array);
+  }
+
+  public static <T> ArraySlice<T> of(final T[] array, final int offset, final int length) {
+    return new ArraySlice<>(array, offset, length);
+  }
+
+  /**
+   * Returns the view without the first <code>count</code> elements.
+   *
+   * @param count the number of elements to skip.
+   * @return The new view.
+   */
+  public ArraySlice<T> drop(final int count) {
+    checkIndex(count, length + 1);
+
+    return new ArraySlice<>(array, offset + count, length - count);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof ArraySlice<?> s
+            && Arrays.equals(
+                array, offset, offset + length, s.array, s.offset, s.offset + s.length));
+  }
+
+  public T get(final int index) {
+    checkIndex(index, length);
+
+    return array[offset + index];
+  }
+
+  public boolean hasPrefix(final T[] prefix) {
+    return hasSlice(prefix, 0, prefix.length);
+  }
+
+  public boolean hasPrefix(final ArraySlice<T> prefix) {
+    return prefix.length <= length
+        && Arrays.equals(
+            array,
+            offset,
+            offset + prefix.length,
+            prefix.array,
+            prefix.offset,
+            prefix.offset + prefix.length);
+  }
+
+  /**
+   * Checks if the view contains the first <code>len</code> elements of <code>slice</code> at
+   * <code>position</code>.
+   *
+   * @param slice the elements to look for.
+   * @param position the position in the view where the slice should start.
+   * @param len the number of elements of <code>slice</code> to compare.
+   * @return The comparison result.
+   */
+  public boolean hasSlice(final T[] slice, final int position, final int len) {
+    return position >= 0
+        && len >= 0
+        && position + len <= length
+        && len <= slice.length
+        && Arrays.equals(array, offset + position, offset + position + len, slice, 0, len);
+  }
+
+  public boolean hasSuffix(final T[] suffix) {
+    return hasSlice(suffix, length - suffix.length, suffix.length);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+
+    for (int i = offset; i < offset + length; ++i) {
+      h = 31 * h + Objects.hashCode(array[i]);
+    }
+
+    return h;
+  }
+
+  public int indexOf(final T object) {
+    for (int i = offset; i < offset + length; ++i) {
+      if (Objects.equals(array[i], object)) {
+        return i - offset;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Finds the first occurrence of <code>slice</code> in the view.
+   *
+   * @param slice the sequence to look for.
+   * @return The position in the view or -1 if it doesn't occur.
+   */
+  public int indexOf(final T[] slice) {
+    for (int i = 0; i <= length - slice.length; ++i) {
+      if (hasSlice(slice, i, slice.length)) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Reverses the elements of the view in the backing array. Nothing is allocated, but the backing
+   * array is modified.
+   *
+   * @return The view itself.
+   */
+  public ArraySlice<T> reverse() {
+    for (int i = offset, j = offset + length - 1; i < j; ++i, --j) {
+      final T t = array[i];
+
+      array[i] = array[j];
+      array[j] = t;
+    }
+
+    return this;
+  }
+
+  /**
+   * Returns the part of the view from <code>from</code> up to <code>to</code>.
+   *
+   * @param from the first position.
+   * @param to the position after the last one.
+   * @return The new view.
+   */
+  public ArraySlice<T> slice(final int from, final int to) {
+    checkFromToIndex(from, to, length);
+
+    return new ArraySlice<>(array, offset + from, to - from);
+  }
+
+  public T[] toArray() {
+    return copyOfRange(array, offset, offset + length);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  /**
+   * Returns the view with only the first <code>len</code> elements.
+   *
+   * @param len the new length.
+   * @return The new view.
+   */
+  public ArraySlice<T> truncate(final int len) {
+    checkIndex(len, length + 1);
+
+    return new ArraySlice<>(array, offset, len);
+  }
+}
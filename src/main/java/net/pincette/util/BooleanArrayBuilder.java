@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>boolean</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class BooleanArrayBuilder extends AbstractArrayBuilder<boolean[], BooleanArrayBuilder> {
+  public BooleanArrayBuilder() {
+    this(16);
+  }
+
+  public BooleanArrayBuilder(final int capacity) {
+    super(new boolean[max(capacity, 0)]);
+  }
+
+  public BooleanArrayBuilder append(final boolean b) {
+    final int position = extend();
+
+    array()[position] = b;
+
+    return this;
+  }
+
+  public boolean get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public BooleanArrayBuilder insert(final int position, final boolean b) {
+    openGap(position);
+    array()[position] = b;
+
+    return this;
+  }
+
+  @Override
+  protected boolean[] newArray(final int length) {
+    return new boolean[length];
+  }
+
+  public BooleanArrayBuilder set(final int index, final boolean b) {
+    checkElementIndex(index);
+    array()[index] = b;
+
+    return this;
+  }
+}
@@ -0,0 +1,64 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Builds a <code>byte</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ByteArrayBuilder extends AbstractArrayBuilder<byte[], ByteArrayBuilder> {
+  public ByteArrayBuilder() {
+    this(16);
+  }
+
+  public ByteArrayBuilder(final int capacity) {
+    super(new byte[max(capacity, 0)]);
+  }
+
+  public ByteArrayBuilder append(final byte b) {
+    final int position = extend();
+
+    array()[position] = b;
+
+    return this;
+  }
+
+  public byte get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public ByteArrayBuilder insert(final int position, final byte b) {
+    openGap(position);
+    array()[position] = b;
+
+    return this;
+  }
+
+  @Override
+  protected byte[] newArray(final int length) {
+    return new byte[length];
+  }
+
+  public ByteArrayBuilder set(final int index, final byte b) {
+    checkElementIndex(index);
+    array()[index] = b;
+
+    return this;
+  }
+
+  /**
+   * Wraps the elements in a buffer without copying them. The buffer is only valid until the builder
+   * is changed.
+   *
+   * @return The buffer.
+   */
+  public ByteBuffer toByteBuffer() {
+    return ByteBuffer.wrap(array(), 0, size());
+  }
+}
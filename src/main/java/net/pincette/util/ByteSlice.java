@@ -0,0 +1,203 @@
+package net.pincette.util;
+
+import static java.util.Arrays.copyOfRange;
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkFromToIndex;
+import static java.util.Objects.checkIndex;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A view on a range of a <code>byte</code> array. Taking a part of it doesn't copy anything. Only
+ * {@link #toArray()} does.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ByteSlice {
+  private final byte[] array;
+  private final int length;
+  private final int offset;
+
+  public ByteSlice(final byte[] array) {
+    this(array, 0, array.length);
+  }
+
+  /**
+   * Creates a view.
+   *
+   * @param array the backing array.
+   * @param offset the start of the view in the array.
+   * @param length the number of elements in the view.
+   */
+  public ByteSlice(final byte[] array, final int offset, final int length) {
+    checkFromIndexSize(offset, length, array.length);
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  public static ByteSlice of(final byte[] array) {
+    return new ByteSlice(array);
+  }
+
+  public static ByteSlice of(final byte[] array, final int offset, final int length) {
+    return new ByteSlice(array, offset, length);
+  }
+
+  /**
+   * Returns the view without the first <code>count</code> elements.
+   *
+   * @param count the number of elements to skip.
+   * @return The new view.
+   */
+  public ByteSlice drop(final int count) {
+    checkIndex(count, length + 1);
+
+    return new ByteSlice(array, offset + count, length - count);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof ByteSlice s
+            && Arrays.equals(
+                array, offset, offset + length, s.array, s.offset, s.offset + s.length));
+  }
+
+  public byte get(final int index) {
+    checkIndex(index, length);
+
+    return array[offset + index];
+  }
+
+  public boolean hasPrefix(final byte[] prefix) {
+    return hasSlice(prefix, 0, prefix.length);
+  }
+
+  public boolean hasPrefix(final ByteSlice prefix) {
+    return prefix.length <= length
+        && Arrays.equals(
+            array,
+            offset,
+            offset + prefix.length,
+            prefix.array,
+            prefix.offset,
+            prefix.offset + prefix.length);
+  }
+
+  /**
+   * Checks if the view contains the first <code>len</code> elements of <code>slice</code> at
+   * <code>position</code>.
+   *
+   * @param slice the elements to look for.
+   * @param position the position in the view where the slice should start.
+   * @param len the number of elements of <code>slice</code> to compare.
+   * @return The comparison result.
+   */
+  public boolean hasSlice(final byte[] slice, final int position, final int len) {
+    return position >= 0
+        && len >= 0
+        && position + len <= length
+        && len <= slice.length
+        && Arrays.equals(array, offset + position, offset + position + len, slice, 0, len);
+  }
+
+  public boolean hasSuffix(final byte[] suffix) {
+    return hasSlice(suffix, length - suffix.length, suffix.length);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+
+    for (int i = offset; i < offset + length; ++i) {
+      h = 31 * h + array[i];
+    }
+
+    return h;
+  }
+
+  public int indexOf(final byte b) {
+    return position(Array.indexOf(array, b, offset, offset + length));
+  }
+
+  /**
+   * Finds the first occurrence of <code>slice</code> in the view.
+   *
+   * @param slice the sequence to look for.
+   * @return The position in the view or -1 if it doesn't occur.
+   */
+  public int indexOf(final byte[] slice) {
+    return position(Array.indexOf(array, slice, offset, offset + length));
+  }
+
+  public int length() {
+    return length;
+  }
+
+  private int position(final int index) {
+    return index != -1 ? (index - offset) : -1;
+  }
+
+  /**
+   * Reverses the elements of the view in the backing array. Nothing is allocated, but the backing
+   * array is modified.
+   *
+   * @return The view itself.
+   */
+  public ByteSlice reverse() {
+    for (int i = offset, j = offset + length - 1; i < j; ++i, --j) {
+      final byte b = array[i];
+
+      array[i] = array[j];
+      array[j] = b;
+    }
+
+    return this;
+  }
+
+  /**
+   * Returns the part of the view from <code>from</code> up to <code>to</code>.
+   *
+   * @param from the first position.
+   * @param to the position after the last one.
+   * @return The new view.
+   */
+  public ByteSlice slice(final int from, final int to) {
+    checkFromToIndex(from, to, length);
+
+    return new ByteSlice(array, offset + from, to - from);
+  }
+
+  public byte[] toArray() {
+    return copyOfRange(array, offset, offset + length);
+  }
+
+  /**
+   * Wraps the view in a buffer without copying.
+   *
+   * @return The buffer, which starts at position 0.
+   */
+  public ByteBuffer toByteBuffer() {
+    return ByteBuffer.wrap(array, offset, length).slice();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  /**
+   * Returns the view with only the first <code>len</code> elements.
+   *
+   * @param len the new length.
+   * @return The new view.
+   */
+  public ByteSlice truncate(final int len) {
+    checkIndex(len, length + 1);
+
+    return new ByteSlice(array, offset, len);
+  }
+}
@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>char</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class CharArrayBuilder extends AbstractArrayBuilder<char[], CharArrayBuilder> {
+  public CharArrayBuilder() {
+    this(16);
+  }
+
+  public CharArrayBuilder(final int capacity) {
+    super(new char[max(capacity, 0)]);
+  }
+
+  public CharArrayBuilder append(final char c) {
+    final int position = extend();
+
+    array()[position] = c;
+
+    return this;
+  }
+
+  public char get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public CharArrayBuilder insert(final int position, final char c) {
+    openGap(position);
+    array()[position] = c;
+
+    return this;
+  }
+
+  @Override
+  protected char[] newArray(final int length) {
+    return new char[length];
+  }
+
+  public CharArrayBuilder set(final int index, final char c) {
+    checkElementIndex(index);
+    array()[index] = c;
+
+    return this;
+  }
+}
@@ -0,0 +1,504 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.fill;
+import static java.util.Objects.checkFromIndexSize;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Table-driven hex and Base64 codecs. Next to the functions that return a new array there are
+ * variants that write into arrays or buffers that are provided by the caller. Those don't allocate
+ * anything. The Base64 functions implement RFC 4648 without line breaks. See {@link
+ * net.pincette.io.Base64OutputStream} and {@link net.pincette.io.Base64InputStream} for the MIME
+ * variant.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class Codecs {
+  private static final byte[] BASE64 =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(US_ASCII);
+  private static final byte[] BASE64_URL =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(US_ASCII);
+  private static final byte[] BASE64_VALUES = base64Values();
+  private static final byte[] HEX_VALUES = hexValues();
+  private static final char[] LOWER_PAIRS = pairs("0123456789abcdef");
+  private static final char[] UPPER_PAIRS = pairs("0123456789ABCDEF");
+
+  private Codecs() {}
+
+  private static byte[] base64Values() {
+    final byte[] result = new byte[128];
+
+    fill(result, (byte) -1);
+
+    for (int i = 0; i < BASE64.length; ++i) {
+      result[BASE64[i]] = (byte) i;
+      result[BASE64_URL[i]] = (byte) i;
+    }
+
+    return result;
+  }
+
+  private static int base64Value(final int c) {
+    final int value = c < 128 ? BASE64_VALUES[c] : -1;
+
+    if (value == -1) {
+      throw new IllegalArgumentException("Illegal Base64 character " + (char) c);
+    }
+
+    return value;
+  }
+
+  /**
+   * Decodes Base64 or Base64URL text. The padding is optional.
+   *
+   * @param s the encoded text.
+   * @return The decoded bytes.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static byte[] decodeBase64(final CharSequence s) {
+    final byte[] encoded = new byte[s.length()];
+
+    for (int i = 0; i < encoded.length; ++i) {
+      encoded[i] = (byte) (s.charAt(i) < 128 ? s.charAt(i) : 0);
+    }
+
+    return decodeBase64(encoded);
+  }
+
+  /**
+   * Decodes Base64 or Base64URL text. The padding is optional.
+   *
+   * @param src the encoded ASCII text.
+   * @return The decoded bytes.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static byte[] decodeBase64(final byte[] src) {
+    final byte[] result = new byte[decodedBase64Length(src, 0, src.length)];
+
+    decodeBase64(src, 0, src.length, result, 0);
+
+    return result;
+  }
+
+  /**
+   * Decodes <code>len</code> bytes of Base64 or Base64URL text into <code>dst</code>. The padding
+   * is optional.
+   *
+   * @param src the encoded ASCII text.
+   * @param off the start position in <code>src</code>.
+   * @param len the number of bytes to decode.
+   * @param dst the destination array.
+   * @param dstOff the start position in <code>dst</code>.
+   * @return The number of decoded bytes.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static int decodeBase64(
+      final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+    checkFromIndexSize(off, len, src.length);
+
+    final int length = decodedBase64Length(src, off, len);
+    final int end = off + unpaddedBase64Length(src, off, len);
+    int i = off;
+    int j = dstOff;
+
+    checkFromIndexSize(dstOff, length, dst.length);
+
+    while (end - i >= 4) {
+      final int v =
+          base64Value(src[i] & 0xff) << 18
+              | base64Value(src[i + 1] & 0xff) << 12
+              | base64Value(src[i + 2] & 0xff) << 6
+              | base64Value(src[i + 3] & 0xff);
+
+      dst[j++] = (byte) (v >> 16);
+      dst[j++] = (byte) (v >> 8);
+      dst[j++] = (byte) v;
+      i += 4;
+    }
+
+    if (end - i >= 2) {
+      final int v =
+          base64Value(src[i] & 0xff) << 18
+              | base64Value(src[i + 1] & 0xff) << 12
+              | (end - i == 3 ? base64Value(src[i + 2] & 0xff) << 6 : 0);
+
+      dst[j++] = (byte) (v >> 16);
+
+      if (end - i == 3) {
+        dst[j++] = (byte) (v >> 8);
+      }
+    }
+
+    return j - dstOff;
+  }
+
+  /**
+   * Decodes the remaining Base64 or Base64URL text in <code>src</code> into <code>dst</code>. The
+   * positions of both buffers are advanced.
+   *
+   * @param src the encoded ASCII text.
+   * @param dst the destination buffer.
+   * @throws BufferOverflowException when <code>dst</code> doesn't have enough room.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static void decodeBase64(final ByteBuffer src, final ByteBuffer dst) {
+    if (src.hasArray() && dst.hasArray()) {
+      final int length =
+          decodedBase64Length(
+              src.array(), src.arrayOffset() + src.position(), src.remaining());
+
+      if (length > dst.remaining()) {
+        throw new BufferOverflowException();
+      }
+
+      decodeBase64(
+          src.array(),
+          src.arrayOffset() + src.position(),
+          src.remaining(),
+          dst.array(),
+          dst.arrayOffset() + dst.position());
+      src.position(src.limit());
+      dst.position(dst.position() + length);
+    } else {
+      final byte[] encoded = new byte[src.remaining()];
+
+      src.get(src.position(), encoded);
+
+      final byte[] decoded = decodeBase64(encoded);
+
+      if (decoded.length > dst.remaining()) {
+        throw new BufferOverflowException();
+      }
+
+      src.position(src.limit());
+      dst.put(decoded);
+    }
+  }
+
+  /**
+   * Decodes hex text in upper or lower case.
+   *
+   * @param s the hex text.
+   * @return The decoded bytes.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static byte[] decodeHex(final CharSequence s) {
+    final byte[] result = new byte[decodedHexLength(s.length())];
+
+    decodeHex(s, 0, s.length(), result, 0);
+
+    return result;
+  }
+
+  /**
+   * Decodes <code>len</code> characters of hex text into <code>dst</code>.
+   *
+   * @param s the hex text.
+   * @param off the start position in <code>s</code>.
+   * @param len the number of characters to decode.
+   * @param dst the destination array.
+   * @param dstOff the start position in <code>dst</code>.
+   * @return The number of decoded bytes.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static int decodeHex(
+      final CharSequence s, final int off, final int len, final byte[] dst, final int dstOff) {
+    checkFromIndexSize(off, len, s.length());
+
+    final int length = decodedHexLength(len);
+
+    checkFromIndexSize(dstOff, length, dst.length);
+
+    for (int i = 0; i < length; ++i) {
+      dst[dstOff + i] =
+          (byte) (hexValue(s.charAt(off + 2 * i)) << 4 | hexValue(s.charAt(off + 2 * i + 1)));
+    }
+
+    return length;
+  }
+
+  /**
+   * Decodes the remaining hex text in <code>src</code> into <code>dst</code>. The positions of both
+   * buffers are advanced.
+   *
+   * @param src the hex text.
+   * @param dst the destination buffer.
+   * @throws BufferOverflowException when <code>dst</code> doesn't have enough room.
+   * @throws IllegalArgumentException when the text is not valid.
+   */
+  public static void decodeHex(final CharBuffer src, final ByteBuffer dst) {
+    final int length = decodedHexLength(src.remaining());
+
+    if (length > dst.remaining()) {
+      throw new BufferOverflowException();
+    }
+
+    for (int i = 0; i < length; ++i) {
+      dst.put((byte) (hexValue(src.get()) << 4 | hexValue(src.get())));
+    }
+  }
+
+  private static int decodedBase64Length(final byte[] src, final int off, final int len) {
+    final int length = unpaddedBase64Length(src, off, len);
+
+    if (length % 4 == 1) {
+      throw new IllegalArgumentException("The Base64 text has an invalid length.");
+    }
+
+    return length / 4 * 3 + (length % 4 == 0 ? 0 : (length % 4 - 1));
+  }
+
+  private static int decodedHexLength(final int length) {
+    if ((length & 1) != 0) {
+      throw new IllegalArgumentException("The hex text has an odd length.");
+    }
+
+    return length / 2;
+  }
+
+  /**
+   * Encodes <code>bytes</code> in Base64 with padding.
+   *
+   * @param bytes the given bytes.
+   * @param url when set the Base64URL alphabet is used.
+   * @return The encoded ASCII text.
+   */
+  public static byte[] encodeBase64(final byte[] bytes, final boolean url) {
+    final byte[] result = new byte[encodedBase64Length(bytes.length)];
+
+    encodeBase64(bytes, 0, bytes.length, result, 0, url);
+
+    return result;
+  }
+
+  /**
+   * Encodes <code>len</code> bytes in Base64 with padding into <code>dst</code>.
+   *
+   * @param src the given bytes.
+   * @param off the start position in <code>src</code>.
+   * @param len the number of bytes to encode.
+   * @param dst the destination array.
+   * @param dstOff the start position in <code>dst</code>.
+   * @param url when set the Base64URL alphabet is used.
+   * @return The number of written bytes, which is {@link #encodedBase64Length(int)}.
+   */
+  public static int encodeBase64(
+      final byte[] src,
+      final int off,
+      final int len,
+      final byte[] dst,
+      final int dstOff,
+      final boolean url) {
+    checkFromIndexSize(off, len, src.length);
+    checkFromIndexSize(dstOff, encodedBase64Length(len), dst.length);
+
+    final byte[] alphabet = url ? BASE64_URL : BASE64;
+    final int end = off + len - len % 3;
+    int i = off;
+    int j = dstOff;
+
+    while (i < end) {
+      final int v = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+
+      dst[j++] = alphabet[v >>> 18];
+      dst[j++] = alphabet[(v >>> 12) & 0x3f];
+      dst[j++] = alphabet[(v >>> 6) & 0x3f];
+      dst[j++] = alphabet[v & 0x3f];
+      i += 3;
+    }
+
+    if (len % 3 > 0) {
+      final int v = (src[i] & 0xff) << 16 | (len % 3 == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+
+      dst[j++] = alphabet[v >>> 18];
+      dst[j++] = alphabet[(v >>> 12) & 0x3f];
+      dst[j++] = len % 3 == 2 ? alphabet[(v >>> 6) & 0x3f] : (byte) '=';
+      dst[j++] = '=';
+    }
+
+    return j - dstOff;
+  }
+
+  /**
+   * Encodes the remaining bytes in <code>src</code> in Base64 with padding into <code>dst</code>.
+   * The positions of both buffers are advanced.
+   *
+   * @param src the given bytes.
+   * @param dst the destination buffer, which receives ASCII text.
+   * @param url when set the Base64URL alphabet is used.
+   * @throws BufferOverflowException when <code>dst</code> doesn't have enough room.
+   */
+  public static void encodeBase64(final ByteBuffer src, final ByteBuffer dst, final boolean url) {
+    final int length = encodedBase64Length(src.remaining());
+
+    if (length > dst.remaining()) {
+      throw new BufferOverflowException();
+    }
+
+    if (src.hasArray() && dst.hasArray()) {
+      encodeBase64(
+          src.array(),
+          src.arrayOffset() + src.position(),
+          src.remaining(),
+          dst.array(),
+          dst.arrayOffset() + dst.position(),
+          url);
+      src.position(src.limit());
+      dst.position(dst.position() + length);
+    } else {
+      final byte[] bytes = new byte[src.remaining()];
+
+      src.get(bytes);
+      dst.put(encodeBase64(bytes, url));
+    }
+  }
+
+  public static String encodeBase64String(final byte[] bytes, final boolean url) {
+    return new String(encodeBase64(bytes, url), US_ASCII);
+  }
+
+  /**
+   * Returns the length of the Base64 encoding with padding of <code>length</code> bytes.
+   *
+   * @param length the number of bytes.
+   * @return The encoded length.
+   */
+  public static int encodedBase64Length(final int length) {
+    return (length + 2) / 3 * 4;
+  }
+
+  /**
+   * Encodes <code>bytes</code> in upper case hex.
+   *
+   * @param bytes the given bytes.
+   * @return The hex text.
+   */
+  public static char[] encodeHex(final byte[] bytes) {
+    return encodeHex(bytes, false);
+  }
+
+  /**
+   * Encodes <code>bytes</code> in hex.
+   *
+   * @param bytes the given bytes.
+   * @param lowerCase when set the letters are in lower case.
+   * @return The hex text.
+   */
+  public static char[] encodeHex(final byte[] bytes, final boolean lowerCase) {
+    final char[] result = new char[bytes.length * 2];
+
+    encodeHex(bytes, 0, bytes.length, result, 0, lowerCase);
+
+    return result;
+  }
+
+  /**
+   * Encodes <code>len</code> bytes in hex into <code>dst</code>.
+   *
+   * @param src the given bytes.
+   * @param off the start position in <code>src</code>.
+   * @param len the number of bytes to encode.
+   * @param dst the destination array.
+   * @param dstOff the start position in <code>dst</code>.
+   * @param lowerCase when set the letters are in lower case.
+   * @return The number of written characters.
+   */
+  public static int encodeHex(
+      final byte[] src,
+      final int off,
+      final int len,
+      final char[] dst,
+      final int dstOff,
+      final boolean lowerCase) {
+    checkFromIndexSize(off, len, src.length);
+    checkFromIndexSize(dstOff, len * 2, dst.length);
+
+    final char[] pairs = lowerCase ? LOWER_PAIRS : UPPER_PAIRS;
+
+    for (int i = 0; i < len; ++i) {
+      final int v = (src[off + i] & 0xff) << 1;
+
+      dst[dstOff + 2 * i] = pairs[v];
+      dst[dstOff + 2 * i + 1] = pairs[v + 1];
+    }
+
+    return len * 2;
+  }
+
+  /**
+   * Encodes the remaining bytes in <code>src</code> in hex into <code>dst</code>. The positions of
+   * both buffers are advanced.
+   *
+   * @param src the given bytes.
+   * @param dst the destination buffer.
+   * @param lowerCase when set the letters are in lower case.
+   * @throws BufferOverflowException when <code>dst</code> doesn't have enough room.
+   */
+  public static void encodeHex(
+      final ByteBuffer src, final CharBuffer dst, final boolean lowerCase) {
+    if (src.remaining() * 2 > dst.remaining()) {
+      throw new BufferOverflowException();
+    }
+
+    final char[] pairs = lowerCase ? LOWER_PAIRS : UPPER_PAIRS;
+
+    while (src.hasRemaining()) {
+      final int v = (src.get() & 0xff) << 1;
+
+      dst.put(pairs[v]).put(pairs[v + 1]);
+    }
+  }
+
+  public static String encodeHexString(final byte[] bytes, final boolean lowerCase) {
+    return new String(encodeHex(bytes, lowerCase));
+  }
+
+  private static int hexValue(final char c) {
+    final int value = c < 128 ? HEX_VALUES[c] : -1;
+
+    if (value == -1) {
+      throw new IllegalArgumentException("Illegal hex character " + c);
+    }
+
+    return value;
+  }
+
+  private static byte[] hexValues() {
+    final byte[] result = new byte[128];
+
+    fill(result, (byte) -1);
+
+    for (int i = 0; i < 16; ++i) {
+      result["0123456789abcdef".charAt(i)] = (byte) i;
+      result["0123456789ABCDEF".charAt(i)] = (byte) i;
+    }
+
+    return result;
+  }
+
+  private static char[] pairs(final String digits) {
+    final char[] result = new char[512];
+
+    for (int i = 0; i < 256; ++i) {
+      result[2 * i] = digits.charAt(i >>> 4);
+      result[2 * i + 1] = digits.charAt(i & 0x0f);
+    }
+
+    return result;
+  }
+
+  private static int unpaddedBase64Length(final byte[] src, final int off, final int len) {
+    int length = len;
+
+    for (int i = 0; i < 2 && length > 0 && src[off + length - 1] == '='; ++i) {
+      --length;
+    }
+
+    return length;
+  }
+}
@@ -3,6 +3,7 @@ package net.pincette.util;
 import static java.lang.Integer.min;
 import static java.lang.Math.max;
 import static java.util.Collections.nCopies;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
@@ -173,7 +174,9 @@ public class Collections {
    * @since 1.8
    */
   public static Map<String, Object> expand(final Map<String, ?> map, final String delimiter) {
-    return expand(map, s -> segments(s, delimiter), CharSequence::toString);
+    final SymbolTable symbols = new SymbolTable();
+
+    return expand(map, s -> segments(s, delimiter), symbols::intern);
   }
 
   /**
@@ -504,8 +507,16 @@ public class Collections {
     return list.isEmpty() ? list.iterator() : new ReverseIterator<>(list);
   }
 
+  /**
+   * Returns an unmodifiable view of the list in reverse order. Nothing is copied, so changes to the
+   * given list are visible in the view.
+   *
+   * @param list the given list.
+   * @param <T> the element type.
+   * @return The reversed view.
+   */
   public static <T> List<T> reverseList(final List<T> list) {
-    return stream(reverse(list)).toList();
+    return unmodifiableList(list).reversed();
   }
 
   /**
@@ -545,6 +556,7 @@ public class Collections {
    * @param newElement the element that is shifted in.
    * @param <T> the element type.
    * @return The new list.
+   * @see RingList#shiftDown(int, Object)
    * @since 1.7
    */
   public static <T> List<T> shiftDown(final List<T> list, final int positions, final T newElement) {
@@ -580,6 +592,7 @@ public class Collections {
    * @param newElement the element that is shifted in.
    * @param <T> the element type.
    * @return The new list.
+   * @see RingList#shiftUp(int, Object)
    * @since 1.7
    */
   public static <T> List<T> shiftUp(final List<T> list, final int positions, final T newElement) {
@@ -0,0 +1,174 @@
+package net.pincette.util;
+
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.size;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.logging.Logger.getLogger;
+import static net.pincette.util.Util.tryToGetRethrow;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import net.pincette.function.FunctionWithException;
+
+/**
+ * Keeps an immutable snapshot of a file that is reloaded when the file changes. A daemon thread
+ * waits for events of a <code>WatchService</code>, so nothing happens as long as the file stays
+ * the same. A change is only loaded when the modification time and the size of the file have stayed
+ * the same for a short while, so a file that is still being written is not published. When a
+ * reload fails the previous snapshot remains.
+ *
+ * @param <T> the snapshot type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ConfigWatcher<T> implements AutoCloseable {
+  private static final Duration SETTLE = Duration.ofMillis(100);
+
+  private final Path file;
+  private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+  private final FunctionWithException<Path, T> loader;
+  private final WatchService watchService;
+  private Stamp last;
+  private volatile T snapshot;
+
+  /**
+   * Loads the file and starts watching it.
+   *
+   * @param file the file.
+   * @param loader the function that creates a snapshot from the file. The snapshot should be
+   *     immutable.
+   * @throws IOException when the file can't be loaded or watched.
+   */
+  public ConfigWatcher(final Path file, final FunctionWithException<Path, T> loader)
+      throws IOException {
+    this.file = file.toAbsolutePath();
+    this.loader = loader;
+    last = stamp();
+    snapshot = tryToGetRethrow(() -> loader.apply(this.file)).orElse(null);
+    watchService = this.file.getFileSystem().newWatchService();
+    this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    Thread.ofPlatform().daemon().name("ConfigWatcher " + this.file).start(this::watch);
+  }
+
+  /**
+   * Watches a file with {@link LineConfig#lines(Path)}.
+   *
+   * @param file the file.
+   * @return The watcher.
+   * @throws IOException when the file can't be loaded or watched.
+   */
+  public static ConfigWatcher<List<String>> lines(final Path file) throws IOException {
+    return new ConfigWatcher<>(file, p -> List.copyOf(LineConfig.lines(p)));
+  }
+
+  /**
+   * Watches a file with {@link LineConfig#properties(Path)}.
+   *
+   * @param file the file.
+   * @return The watcher.
+   * @throws IOException when the file can't be loaded or watched.
+   */
+  public static ConfigWatcher<Map<String, String>> properties(final Path file) throws IOException {
+    return new ConfigWatcher<>(file, p -> Map.copyOf(LineConfig.properties(p)));
+  }
+
+  private boolean changed() throws IOException, InterruptedException {
+    Stamp current = stamp();
+
+    if (current.equals(last)) {
+      return false;
+    }
+
+    for (Stamp previous = null; !current.equals(previous); current = stamp()) {
+      previous = current;
+      Thread.sleep(SETTLE);
+    }
+
+    last = current;
+
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * Returns the current snapshot.
+   *
+   * @return The snapshot.
+   */
+  public T get() {
+    return snapshot;
+  }
+
+  private boolean isFileEvent(final WatchEvent<?> event) {
+    return event.kind() == OVERFLOW || file.getFileName().equals(event.context());
+  }
+
+  /**
+   * Adds a function that is called with each new snapshot, on the thread of the watcher.
+   *
+   * @param listener the function.
+   * @return The watcher itself.
+   */
+  public ConfigWatcher<T> onChange(final Consumer<T> listener) {
+    listeners.add(listener);
+
+    return this;
+  }
+
+  private void reload() {
+    try {
+      if (changed()) {
+        final T loaded = loader.apply(file);
+
+        snapshot = loaded;
+        listeners.forEach(l -> l.accept(loaded));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      getLogger(getClass().getName()).log(Level.SEVERE, "Reload of " + file + " failed", e);
+    }
+  }
+
+  private Stamp stamp() throws IOException {
+    return new Stamp(getLastModifiedTime(file), size(file));
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        final WatchKey key = watchService.take();
+        final boolean relevant = key.pollEvents().stream().anyMatch(this::isFileEvent);
+
+        key.reset();
+
+        if (relevant) {
+          reload();
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      // The watcher was closed.
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private record Stamp(FileTime modified, long size) {}
+}
@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>double</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class DoubleArrayBuilder extends AbstractArrayBuilder<double[], DoubleArrayBuilder> {
+  public DoubleArrayBuilder() {
+    this(16);
+  }
+
+  public DoubleArrayBuilder(final int capacity) {
+    super(new double[max(capacity, 0)]);
+  }
+
+  public DoubleArrayBuilder append(final double d) {
+    final int position = extend();
+
+    array()[position] = d;
+
+    return this;
+  }
+
+  public double get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public DoubleArrayBuilder insert(final int position, final double d) {
+    openGap(position);
+    array()[position] = d;
+
+    return this;
+  }
+
+  @Override
+  protected double[] newArray(final int length) {
+    return new double[length];
+  }
+
+  public DoubleArrayBuilder set(final int index, final double d) {
+    checkElementIndex(index);
+    array()[index] = d;
+
+    return this;
+  }
+}
@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>float</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class FloatArrayBuilder extends AbstractArrayBuilder<float[], FloatArrayBuilder> {
+  public FloatArrayBuilder() {
+    this(16);
+  }
+
+  public FloatArrayBuilder(final int capacity) {
+    super(new float[max(capacity, 0)]);
+  }
+
+  public FloatArrayBuilder append(final float f) {
+    final int position = extend();
+
+    array()[position] = f;
+
+    return this;
+  }
+
+  public float get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public FloatArrayBuilder insert(final int position, final float f) {
+    openGap(position);
+    array()[position] = f;
+
+    return this;
+  }
+
+  @Override
+  protected float[] newArray(final int length) {
+    return new float[length];
+  }
+
+  public FloatArrayBuilder set(final int index, final float f) {
+    checkElementIndex(index);
+    array()[index] = f;
+
+    return this;
+  }
+}
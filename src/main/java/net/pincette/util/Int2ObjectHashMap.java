@@ -0,0 +1,297 @@
+package net.pincette.util;
+
+import static java.util.Arrays.fill;
+import static net.pincette.util.IntHashSet.capacity;
+import static net.pincette.util.IntHashSet.hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A map with <code>int</code> keys that doesn't box them. It uses open addressing with linear
+ * probing in two parallel arrays. The key 0 marks a free slot, so it is tracked separately. Values
+ * can't be <code>null</code>.
+ *
+ * @param <V> the value type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class Int2ObjectHashMap<V> {
+  private static final float LOAD_FACTOR = 0.65F;
+
+  private int[] keys;
+  private int mask;
+  private int resizeAt;
+  private int size;
+  private Object[] values;
+  private V zeroValue;
+
+  public Int2ObjectHashMap() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty map.
+   *
+   * @param expectedSize the number of entries that can be added without resizing.
+   */
+  public Int2ObjectHashMap(final int expectedSize) {
+    allocate(capacity(expectedSize));
+  }
+
+  private void allocate(final int capacity) {
+    keys = new int[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  public void clear() {
+    fill(keys, 0);
+    fill(values, null);
+    zeroValue = null;
+    size = 0;
+  }
+
+  /**
+   * Returns the value for <code>key</code>. If there is none, it is created with <code>fn</code>
+   * and stored. When <code>fn</code> returns <code>null</code> nothing is stored.
+   *
+   * @param key the given key.
+   * @param fn the function that creates the value.
+   * @return The existing or new value, which is <code>null</code> when none was created.
+   */
+  public V computeIfAbsent(final int key, final IntFunction<? extends V> fn) {
+    final V value = get(key);
+
+    if (value != null) {
+      return value;
+    }
+
+    final V created = fn.apply(key);
+
+    if (created != null) {
+      put(key, created);
+    }
+
+    return created;
+  }
+
+  public boolean containsKey(final int key) {
+    return get(key) != null;
+  }
+
+  private int find(final int key) {
+    int slot = hash(key, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  public void forEach(final EntryConsumer<? super V> consumer) {
+    if (zeroValue != null) {
+      consumer.accept(0, zeroValue);
+    }
+
+    for (int i = 0; i < keys.length; ++i) {
+      if (keys[i] != 0) {
+        consumer.accept(keys[i], value(i));
+      }
+    }
+  }
+
+  /**
+   * Returns the value for <code>key</code>.
+   *
+   * @param key the given key.
+   * @return The value or <code>null</code> if there is none.
+   */
+  public V get(final int key) {
+    if (key == 0) {
+      return zeroValue;
+    }
+
+    final int slot = find(key);
+
+    return slot != -1 ? value(slot) : null;
+  }
+
+  public Optional<V> getOptional(final int key) {
+    return Optional.ofNullable(get(key));
+  }
+
+  public V getOrDefault(final int key, final V defaultValue) {
+    final V value = get(key);
+
+    return value != null ? value : defaultValue;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public IntStream keys() {
+    final IntArrayList result = new IntArrayList(size);
+
+    forEach((k, v) -> result.add(k));
+
+    return result.stream();
+  }
+
+  /**
+   * Sets the value for <code>key</code>.
+   *
+   * @param key the given key.
+   * @param value the new value, which may not be <code>null</code>.
+   * @return The previous value or <code>null</code> if there was none.
+   */
+  public V put(final int key, final V value) {
+    if (value == null) {
+      throw new NullPointerException("Values can't be null.");
+    }
+
+    if (key == 0) {
+      final V previous = zeroValue;
+
+      zeroValue = value;
+
+      if (previous == null) {
+        ++size;
+      }
+
+      return previous;
+    }
+
+    int slot = hash(key, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        final V previous = value(slot);
+
+        values[slot] = value;
+
+        return previous;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+
+    if (++size > resizeAt) {
+      rehash(keys.length << 1);
+    }
+
+    return null;
+  }
+
+  private void rehash(final int capacity) {
+    final int[] oldKeys = keys;
+    final Object[] oldValues = values;
+
+    allocate(capacity);
+
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldKeys[i] != 0) {
+        int slot = hash(oldKeys[i], mask);
+
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Removes the entry for <code>key</code>.
+   *
+   * @param key the given key.
+   * @return The removed value or <code>null</code> if there was none.
+   */
+  public V remove(final int key) {
+    if (key == 0) {
+      final V previous = zeroValue;
+
+      if (previous != null) {
+        zeroValue = null;
+        --size;
+      }
+
+      return previous;
+    }
+
+    final int slot = find(key);
+
+    if (slot == -1) {
+      return null;
+    }
+
+    final V previous = value(slot);
+
+    removeSlot(slot);
+    --size;
+
+    return previous;
+  }
+
+  private void removeSlot(final int slot) {
+    // Entries after the gap are shifted back when they are allowed to live there. This way no
+    // tombstones are needed.
+    int gap = slot;
+    int i = (slot + 1) & mask;
+
+    while (keys[i] != 0) {
+      if (((i - hash(keys[i], mask)) & mask) >= ((i - gap) & mask)) {
+        keys[gap] = keys[i];
+        values[gap] = values[i];
+        gap = i;
+      }
+
+      i = (i + 1) & mask;
+    }
+
+    keys[gap] = 0;
+    values[gap] = null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(final int slot) {
+    return (V) values[slot];
+  }
+
+  public List<V> values() {
+    final List<V> result = new ArrayList<>(size);
+
+    forEach((k, v) -> result.add(v));
+
+    return result;
+  }
+
+  /**
+   * Receives the entries of the map.
+   *
+   * @param <V> the value type.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+    void accept(int key, V value);
+  }
+}
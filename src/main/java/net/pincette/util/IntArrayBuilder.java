@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds an <code>int</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class IntArrayBuilder extends AbstractArrayBuilder<int[], IntArrayBuilder> {
+  public IntArrayBuilder() {
+    this(16);
+  }
+
+  public IntArrayBuilder(final int capacity) {
+    super(new int[max(capacity, 0)]);
+  }
+
+  public IntArrayBuilder append(final int i) {
+    final int position = extend();
+
+    array()[position] = i;
+
+    return this;
+  }
+
+  public int get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public IntArrayBuilder insert(final int position, final int i) {
+    openGap(position);
+    array()[position] = i;
+
+    return this;
+  }
+
+  @Override
+  protected int[] newArray(final int length) {
+    return new int[length];
+  }
+
+  public IntArrayBuilder set(final int index, final int i) {
+    checkElementIndex(index);
+    array()[index] = i;
+
+    return this;
+  }
+}
@@ -0,0 +1,290 @@
+package net.pincette.util;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
+import static java.util.Spliterator.DISTINCT;
+import static java.util.Spliterators.spliterator;
+import static java.util.stream.StreamSupport.intStream;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A set of <code>int</code> values that doesn't box them. It uses open addressing with linear
+ * probing in a single array. The value 0 marks a free slot, so it is tracked separately.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class IntHashSet {
+  private static final float LOAD_FACTOR = 0.65F;
+
+  private boolean hasZero;
+  private int[] keys;
+  private int mask;
+  private int resizeAt;
+  private int size;
+
+  public IntHashSet() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty set.
+   *
+   * @param expectedSize the number of values that can be added without resizing.
+   */
+  public IntHashSet(final int expectedSize) {
+    allocate(capacity(expectedSize));
+  }
+
+  /**
+   * Creates a set with the values.
+   *
+   * @param values the initial values.
+   * @return The new set.
+   */
+  public static IntHashSet of(final int... values) {
+    final IntHashSet result = new IntHashSet(values.length);
+
+    for (final int value : values) {
+      result.add(value);
+    }
+
+    return result;
+  }
+
+  static int capacity(final int expectedSize) {
+    final int minimum = max(2, (int) (max(expectedSize, 1) / LOAD_FACTOR) + 1);
+
+    return highestOneBit(minimum) == minimum ? minimum : (highestOneBit(minimum) << 1);
+  }
+
+  static int hash(final int key, final int mask) {
+    final int h = key * 0x9E3779B9;
+
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Adds the value to the set.
+   *
+   * @param value the given value.
+   * @return <code>true</code> if the value wasn't in the set yet.
+   */
+  public boolean add(final int value) {
+    if (value == 0) {
+      if (hasZero) {
+        return false;
+      }
+
+      hasZero = true;
+      ++size;
+
+      return true;
+    }
+
+    int slot = hash(value, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) {
+        return false;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = value;
+
+    if (++size > resizeAt) {
+      rehash(keys.length << 1);
+    }
+
+    return true;
+  }
+
+  private void allocate(final int capacity) {
+    keys = new int[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  public void clear() {
+    fill(keys, 0);
+    hasZero = false;
+    size = 0;
+  }
+
+  public boolean contains(final int value) {
+    return value == 0 ? hasZero : (find(value) != -1);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof IntHashSet set && set.size == size && stream().allMatch(set::contains));
+  }
+
+  private int find(final int value) {
+    int slot = hash(value, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  public void forEach(final IntConsumer consumer) {
+    if (hasZero) {
+      consumer.accept(0);
+    }
+
+    for (final int key : keys) {
+      if (key != 0) {
+        consumer.accept(key);
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return stream().sum();
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private boolean zero = hasZero;
+      private int slot = next(0);
+
+      @Override
+      public boolean hasNext() {
+        return zero || slot < keys.length;
+      }
+
+      private int next(final int from) {
+        int i = from;
+
+        while (i < keys.length && keys[i] == 0) {
+          ++i;
+        }
+
+        return i;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+
+        if (zero) {
+          zero = false;
+
+          return 0;
+        }
+
+        final int result = keys[slot];
+
+        slot = next(slot + 1);
+
+        return result;
+      }
+    };
+  }
+
+  private void rehash(final int capacity) {
+    final int[] old = keys;
+
+    allocate(capacity);
+
+    for (final int key : old) {
+      if (key != 0) {
+        int slot = hash(key, mask);
+
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+      }
+    }
+  }
+
+  /**
+   * Removes the value from the set.
+   *
+   * @param value the given value.
+   * @return <code>true</code> if the value was in the set.
+   */
+  public boolean remove(final int value) {
+    if (value == 0) {
+      if (!hasZero) {
+        return false;
+      }
+
+      hasZero = false;
+      --size;
+
+      return true;
+    }
+
+    final int slot = find(value);
+
+    if (slot == -1) {
+      return false;
+    }
+
+    removeSlot(slot);
+    --size;
+
+    return true;
+  }
+
+  private void removeSlot(final int slot) {
+    // Entries after the gap are shifted back when they are allowed to live there. This way no
+    // tombstones are needed.
+    int gap = slot;
+    int i = (slot + 1) & mask;
+
+    while (keys[i] != 0) {
+      if (((i - hash(keys[i], mask)) & mask) >= ((i - gap) & mask)) {
+        keys[gap] = keys[i];
+        gap = i;
+      }
+
+      i = (i + 1) & mask;
+    }
+
+    keys[gap] = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public IntStream stream() {
+    return intStream(spliterator(iterator(), size, DISTINCT), false);
+  }
+
+  public int[] toArray() {
+    return stream().toArray();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -0,0 +1,167 @@
+package net.pincette.util;
+
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.readAllBytes;
+import static java.util.stream.Collectors.toMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the line configuration format of {@link Util#readLineConfig(java.util.stream.Stream)} in
+ * one pass over the characters. Java-style Unicode escapes are decoded on the fly, as with {@link
+ * net.pincette.io.EscapedUnicodeFilterReader}. Comments start with "#" and end at the end of the
+ * line. A line that ends with "\" continues on the next non-empty line. Lines are trimmed and empty
+ * lines are dropped. Files are read in one go and decoded in bulk.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class LineConfig {
+  private LineConfig() {}
+
+  private static int escape(final CharBuffer chars, final int i, final int end) {
+    if (i + 5 < end && chars.get(i + 1) == 'u') {
+      int result = 0;
+
+      for (int j = i + 2; j < i + 6; ++j) {
+        final int digit = Character.digit(chars.get(j), 16);
+
+        if (digit == -1) {
+          return -1;
+        }
+
+        result = (result << 4) | digit;
+      }
+
+      return result;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Reads a file in UTF-8. It is read completely before it is parsed, so a file that changes
+   * while it is read can't break the parser.
+   *
+   * @param path the file.
+   * @return The configuration lines.
+   * @throws IOException when the file can't be read.
+   */
+  public static List<String> lines(final Path path) throws IOException {
+    return lines(wrap(readAllBytes(path)));
+  }
+
+  /**
+   * Parses UTF-8 bytes. The position of the buffer is advanced to its limit.
+   *
+   * @param utf8 the bytes.
+   * @return The configuration lines.
+   */
+  public static List<String> lines(final ByteBuffer utf8) {
+    return lines(UTF_8.decode(utf8));
+  }
+
+  /**
+   * Parses the characters. The position of the buffer is not changed.
+   *
+   * @param chars the characters.
+   * @return The configuration lines.
+   */
+  public static List<String> lines(final CharBuffer chars) {
+    final StringBuilder continued = new StringBuilder();
+    final int end = chars.limit();
+    final StringBuilder line = new StringBuilder();
+    final List<String> result = new ArrayList<>();
+    boolean comment = false;
+    int i = chars.position();
+
+    while (i <= end) {
+      char c = i < end ? chars.get(i) : '\n';
+      int next = i + 1;
+
+      if (c == '\\') {
+        final int escaped = escape(chars, i, end);
+
+        if (escaped != -1) {
+          c = (char) escaped;
+          next = i + 6;
+        }
+      }
+
+      if (c == '\n' || c == '\r') {
+        if (c == '\r' && next < end && chars.get(next) == '\n') {
+          ++next;
+        }
+
+        takeLine(line, continued, result);
+        comment = false;
+      } else if (c == '#') {
+        comment = true;
+      } else if (!comment) {
+        line.append(c);
+      }
+
+      i = next;
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses a file in UTF-8 as properties. Lines with exactly one "=" that is not at the end are
+   * kept.
+   *
+   * @param path the file.
+   * @return The properties.
+   * @throws IOException when the file can't be read.
+   */
+  public static Map<String, String> properties(final Path path) throws IOException {
+    return properties(lines(path));
+  }
+
+  static Map<String, String> properties(final List<String> lines) {
+    return lines.stream()
+        .filter(
+            line -> {
+              final int index = line.indexOf('=');
+
+              return index != -1 && index == line.lastIndexOf('=') && index < line.length() - 1;
+            })
+        .collect(
+            toMap(
+                line -> line.substring(0, line.indexOf('=')),
+                line -> line.substring(line.indexOf('=') + 1)));
+  }
+
+  private static void takeLine(
+      final StringBuilder line, final StringBuilder continued, final List<String> result) {
+    int start = 0;
+    int end = line.length();
+
+    while (start < end && line.charAt(start) <= ' ') {
+      ++start;
+    }
+
+    while (end > start && line.charAt(end - 1) <= ' ') {
+      --end;
+    }
+
+    if (start < end) {
+      if (line.charAt(end - 1) == '\\') {
+        continued.append(line, start, end - 1);
+      } else {
+        result.add(continued.append(line, start, end).toString());
+        continued.setLength(0);
+      }
+    }
+
+    line.setLength(0);
+  }
+}
@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>long</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class LongArrayBuilder extends AbstractArrayBuilder<long[], LongArrayBuilder> {
+  public LongArrayBuilder() {
+    this(16);
+  }
+
+  public LongArrayBuilder(final int capacity) {
+    super(new long[max(capacity, 0)]);
+  }
+
+  public LongArrayBuilder append(final long l) {
+    final int position = extend();
+
+    array()[position] = l;
+
+    return this;
+  }
+
+  public long get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public LongArrayBuilder insert(final int position, final long l) {
+    openGap(position);
+    array()[position] = l;
+
+    return this;
+  }
+
+  @Override
+  protected long[] newArray(final int length) {
+    return new long[length];
+  }
+
+  public LongArrayBuilder set(final int index, final long l) {
+    checkElementIndex(index);
+    array()[index] = l;
+
+    return this;
+  }
+}
@@ -0,0 +1,215 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Objects.checkIndex;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A growable list of <code>long</code> values that doesn't box them.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class LongArrayList {
+  private static final int DEFAULT_CAPACITY = 10;
+
+  private long[] elements;
+  private int size;
+
+  public LongArrayList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty list.
+   *
+   * @param capacity the initial capacity.
+   */
+  public LongArrayList(final int capacity) {
+    elements = new long[max(capacity, 0)];
+  }
+
+  /**
+   * Creates a list with a copy of the values.
+   *
+   * @param values the initial values.
+   * @return The new list.
+   */
+  public static LongArrayList of(final long... values) {
+    final LongArrayList result = new LongArrayList(values.length);
+
+    result.addAll(values);
+
+    return result;
+  }
+
+  public LongArrayList add(final long value) {
+    if (size == elements.length) {
+      grow(size + 1);
+    }
+
+    elements[size++] = value;
+
+    return this;
+  }
+
+  /**
+   * Inserts <code>value</code> at <code>index</code>. The values after it move up one position.
+   *
+   * @param index the insertion point, which may be equal to the size.
+   * @param value the new value.
+   * @return The list itself.
+   */
+  public LongArrayList add(final int index, final long value) {
+    checkIndex(index, size + 1);
+
+    if (size == elements.length) {
+      grow(size + 1);
+    }
+
+    System.arraycopy(elements, index, elements, index + 1, size - index);
+    elements[index] = value;
+    ++size;
+
+    return this;
+  }
+
+  public LongArrayList addAll(final long... values) {
+    ensureCapacity(size + values.length);
+    System.arraycopy(values, 0, elements, size, values.length);
+    size += values.length;
+
+    return this;
+  }
+
+  public LongArrayList addAll(final LongArrayList list) {
+    ensureCapacity(size + list.size);
+    System.arraycopy(list.elements, 0, elements, size, list.size);
+    size += list.size;
+
+    return this;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public boolean contains(final long value) {
+    return indexOf(value) != -1;
+  }
+
+  public void ensureCapacity(final int capacity) {
+    if (capacity > elements.length) {
+      grow(capacity);
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof LongArrayList list
+            && Arrays.equals(elements, 0, size, list.elements, 0, list.size));
+  }
+
+  public void forEach(final LongConsumer consumer) {
+    for (int i = 0; i < size; ++i) {
+      consumer.accept(elements[i]);
+    }
+  }
+
+  public long get(final int index) {
+    checkIndex(index, size);
+
+    return elements[index];
+  }
+
+  private void grow(final int minimum) {
+    elements = copyOf(elements, max(minimum, elements.length + (elements.length >> 1) + 1));
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+
+    for (int i = 0; i < size; ++i) {
+      h = 31 * h + Long.hashCode(elements[i]);
+    }
+
+    return h;
+  }
+
+  public int indexOf(final long value) {
+    for (int i = 0; i < size; ++i) {
+      if (elements[i] == value) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes the value at <code>index</code>. The values after it move down one position.
+   *
+   * @param index the position of the value.
+   * @return The removed value.
+   */
+  public long removeAt(final int index) {
+    checkIndex(index, size);
+
+    final long result = elements[index];
+
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    --size;
+
+    return result;
+  }
+
+  public long set(final int index, final long value) {
+    checkIndex(index, size);
+
+    final long result = elements[index];
+
+    elements[index] = value;
+
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public LongArrayList sort() {
+    Arrays.sort(elements, 0, size);
+
+    return this;
+  }
+
+  public LongStream stream() {
+    return Arrays.stream(elements, 0, size);
+  }
+
+  public long[] toArray() {
+    return copyOf(elements, size);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  /** Releases the unused capacity. */
+  public void trimToSize() {
+    if (size < elements.length) {
+      elements = copyOf(elements, size);
+    }
+  }
+}
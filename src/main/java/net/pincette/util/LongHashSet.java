@@ -0,0 +1,283 @@
+package net.pincette.util;
+
+import static java.util.Arrays.fill;
+import static java.util.Spliterator.DISTINCT;
+import static java.util.Spliterators.spliterator;
+import static java.util.stream.StreamSupport.longStream;
+import static net.pincette.util.IntHashSet.capacity;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A set of <code>long</code> values that doesn't box them. It uses open addressing with linear
+ * probing in a single array. The value 0 marks a free slot, so it is tracked separately.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class LongHashSet {
+  private static final float LOAD_FACTOR = 0.65F;
+
+  private boolean hasZero;
+  private long[] keys;
+  private int mask;
+  private int resizeAt;
+  private int size;
+
+  public LongHashSet() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty set.
+   *
+   * @param expectedSize the number of values that can be added without resizing.
+   */
+  public LongHashSet(final int expectedSize) {
+    allocate(capacity(expectedSize));
+  }
+
+  /**
+   * Creates a set with the values.
+   *
+   * @param values the initial values.
+   * @return The new set.
+   */
+  public static LongHashSet of(final long... values) {
+    final LongHashSet result = new LongHashSet(values.length);
+
+    for (final long value : values) {
+      result.add(value);
+    }
+
+    return result;
+  }
+
+  static int hash(final long key, final int mask) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  /**
+   * Adds the value to the set.
+   *
+   * @param value the given value.
+   * @return <code>true</code> if the value wasn't in the set yet.
+   */
+  public boolean add(final long value) {
+    if (value == 0) {
+      if (hasZero) {
+        return false;
+      }
+
+      hasZero = true;
+      ++size;
+
+      return true;
+    }
+
+    int slot = hash(value, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) {
+        return false;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = value;
+
+    if (++size > resizeAt) {
+      rehash(keys.length << 1);
+    }
+
+    return true;
+  }
+
+  private void allocate(final int capacity) {
+    keys = new long[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  public void clear() {
+    fill(keys, 0);
+    hasZero = false;
+    size = 0;
+  }
+
+  public boolean contains(final long value) {
+    return value == 0 ? hasZero : (find(value) != -1);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof LongHashSet set && set.size == size && stream().allMatch(set::contains));
+  }
+
+  private int find(final long value) {
+    int slot = hash(value, mask);
+
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  public void forEach(final LongConsumer consumer) {
+    if (hasZero) {
+      consumer.accept(0L);
+    }
+
+    for (final long key : keys) {
+      if (key != 0) {
+        consumer.accept(key);
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(stream().sum());
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public PrimitiveIterator.OfLong iterator() {
+    return new PrimitiveIterator.OfLong() {
+      private boolean zero = hasZero;
+      private int slot = next(0);
+
+      @Override
+      public boolean hasNext() {
+        return zero || slot < keys.length;
+      }
+
+      private int next(final int from) {
+        int i = from;
+
+        while (i < keys.length && keys[i] == 0) {
+          ++i;
+        }
+
+        return i;
+      }
+
+      @Override
+      public long nextLong() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+
+        if (zero) {
+          zero = false;
+
+          return 0L;
+        }
+
+        final long result = keys[slot];
+
+        slot = next(slot + 1);
+
+        return result;
+      }
+    };
+  }
+
+  private void rehash(final int capacity) {
+    final long[] old = keys;
+
+    allocate(capacity);
+
+    for (final long key : old) {
+      if (key != 0) {
+        int slot = hash(key, mask);
+
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+      }
+    }
+  }
+
+  /**
+   * Removes the value from the set.
+   *
+   * @param value the given value.
+   * @return <code>true</code> if the value was in the set.
+   */
+  public boolean remove(final long value) {
+    if (value == 0) {
+      if (!hasZero) {
+        return false;
+      }
+
+      hasZero = false;
+      --size;
+
+      return true;
+    }
+
+    final int slot = find(value);
+
+    if (slot == -1) {
+      return false;
+    }
+
+    removeSlot(slot);
+    --size;
+
+    return true;
+  }
+
+  private void removeSlot(final int slot) {
+    // Entries after the gap are shifted back when they are allowed to live there. This way no
+    // tombstones are needed.
+    int gap = slot;
+    int i = (slot + 1) & mask;
+
+    while (keys[i] != 0) {
+      if (((i - hash(keys[i], mask)) & mask) >= ((i - gap) & mask)) {
+        keys[gap] = keys[i];
+        gap = i;
+      }
+
+      i = (i + 1) & mask;
+    }
+
+    keys[gap] = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public LongStream stream() {
+    return longStream(spliterator(iterator(), size, DISTINCT), false);
+  }
+
+  public long[] toArray() {
+    return stream().toArray();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
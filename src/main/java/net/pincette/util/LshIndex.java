@@ -0,0 +1,180 @@
+package net.pincette.util;
+
+import static java.lang.Math.pow;
+import static net.pincette.util.Shingles.mix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A locality-sensitive hashing index for {@link MinHash} signatures. A signature is cut in <code>
+ * bands</code> bands of <code>rows</code> positions. Each band is hashed to a bucket and two
+ * documents become candidates when they share a bucket for at least one band. Documents with a
+ * similarity of <code>s</code> become candidates with a probability of <code>
+ * 1 - (1 - s^rows)^bands</code>, which rises steeply around the threshold <code>
+ * (1 / bands)^(1 / rows)</code>.
+ *
+ * <p>The documents are identified by an <code>int</code>. The index keeps the signatures to filter
+ * the candidates on their estimated similarity. It is not thread-safe, but {@link #addAll(int[],
+ * long[][])} fills the bands in parallel.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class LshIndex {
+  private final List<Long2ObjectHashMap<IntArrayList>> buckets;
+  private final int rows;
+  private final Int2ObjectHashMap<long[]> signatures = new Int2ObjectHashMap<>();
+
+  /**
+   * Creates an empty index.
+   *
+   * @param bands the number of bands.
+   * @param rows the number of signature positions per band. The signatures should have at least
+   *     <code>bands * rows</code> positions.
+   */
+  public LshIndex(final int bands, final int rows) {
+    this.rows = rows;
+    buckets = new ArrayList<>(bands);
+
+    for (int i = 0; i < bands; ++i) {
+      buckets.add(new Long2ObjectHashMap<>());
+    }
+  }
+
+  private static void add(final IntArrayList postings, final int id) {
+    if (postings.isEmpty() || postings.get(postings.size() - 1) != id) {
+      postings.add(id);
+    }
+  }
+
+  /**
+   * Adds a document. Adding it again with another signature leaves the buckets of the old one.
+   *
+   * @param id the document.
+   * @param signature the signature of the document.
+   */
+  public void add(final int id, final long[] signature) {
+    checkLength(signature);
+    signatures.put(id, signature);
+
+    for (int band = 0; band < buckets.size(); ++band) {
+      add(
+          buckets.get(band).computeIfAbsent(bandHash(signature, band), k -> new IntArrayList()),
+          id);
+    }
+  }
+
+  /**
+   * Adds many documents. The bands are filled in parallel on the common fork-join pool.
+   *
+   * @param ids the documents.
+   * @param signatures the signatures of the documents, in the same order.
+   */
+  public void addAll(final int[] ids, final long[][] signatures) {
+    if (ids.length != signatures.length) {
+      throw new IllegalArgumentException("There should be a signature for every document.");
+    }
+
+    for (int i = 0; i < ids.length; ++i) {
+      checkLength(signatures[i]);
+      this.signatures.put(ids[i], signatures[i]);
+    }
+
+    IntStream.range(0, buckets.size())
+        .parallel()
+        .forEach(
+            band -> {
+              final Long2ObjectHashMap<IntArrayList> bucket = buckets.get(band);
+
+              for (int i = 0; i < ids.length; ++i) {
+                add(
+                    bucket.computeIfAbsent(bandHash(signatures[i], band), k -> new IntArrayList()),
+                    ids[i]);
+              }
+            });
+  }
+
+  private long bandHash(final long[] signature, final int band) {
+    long result = band;
+
+    for (int i = band * rows; i < (band + 1) * rows; ++i) {
+      result = mix(result * 31 + signature[i]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the documents that share at least one band with <code>signature</code>.
+   *
+   * @param signature the signature.
+   * @return The documents in ascending order.
+   */
+  public int[] candidates(final long[] signature) {
+    checkLength(signature);
+
+    final IntHashSet result = new IntHashSet();
+
+    for (int band = 0; band < buckets.size(); ++band) {
+      final IntArrayList postings = buckets.get(band).get(bandHash(signature, band));
+
+      if (postings != null) {
+        postings.forEach(result::add);
+      }
+    }
+
+    return result.stream().sorted().toArray();
+  }
+
+  private void checkLength(final long[] signature) {
+    if (signature.length < buckets.size() * rows) {
+      throw new IllegalArgumentException(
+          "The signature should have at least " + buckets.size() * rows + " positions.");
+    }
+  }
+
+  /**
+   * Returns the signature of a document.
+   *
+   * @param id the document.
+   * @return The signature or <code>null</code> if the document is not in the index.
+   */
+  public long[] signature(final int id) {
+    return signatures.get(id);
+  }
+
+  /**
+   * Returns the candidates of which the estimated similarity with <code>signature</code> is at
+   * least <code>threshold</code>.
+   *
+   * @param signature the signature.
+   * @param threshold the minimum similarity.
+   * @return The documents in ascending order.
+   * @see MinHash#similarity(long[], long[])
+   */
+  public int[] similar(final long[] signature, final double threshold) {
+    return IntStream.of(candidates(signature))
+        .filter(id -> MinHash.similarity(signature, signatures.get(id)) >= threshold)
+        .toArray();
+  }
+
+  /**
+   * Returns the number of documents.
+   *
+   * @return The number of documents.
+   */
+  public int size() {
+    return signatures.size();
+  }
+
+  /**
+   * Returns the similarity at which the probability to become a candidate rises most steeply.
+   *
+   * @return The approximate threshold.
+   */
+  public double threshold() {
+    return pow(1.0 / buckets.size(), 1.0 / rows);
+  }
+}
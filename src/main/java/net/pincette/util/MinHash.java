@@ -0,0 +1,136 @@
+package net.pincette.util;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Arrays.fill;
+import static net.pincette.util.Shingles.mix;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Computes MinHash signatures, with which the Jaccard similarity of two sets can be estimated
+ * without comparing the sets themselves. The sets are given as hashes, for example those of {@link
+ * Shingles#hashes(CharSequence, int, int)}. Each position of a signature is the minimum over the
+ * set of a different hash function. The fraction of positions at which two signatures are equal
+ * estimates the similarity. The standard error is about <code>1 / sqrt(size)</code>.
+ *
+ * <p>Two instances with the same size and seed produce the same signatures. Instances are
+ * immutable and can be shared between threads.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ * @see LshIndex
+ */
+public class MinHash {
+  private final long[] seeds;
+
+  /**
+   * Creates a signature builder.
+   *
+   * @param size the number of hash functions, which is the length of the signatures.
+   * @param seed the seed from which the hash functions are derived.
+   */
+  public MinHash(final int size, final long seed) {
+    seeds = new SplittableRandom(seed).longs(size).toArray();
+  }
+
+  /**
+   * Estimates the Jaccard similarity of the sets behind two signatures.
+   *
+   * @param signature1 the first signature.
+   * @param signature2 the second signature, which should have the same length as the first one.
+   * @return A value between 0 and 1.
+   */
+  public static double similarity(final long[] signature1, final long[] signature2) {
+    if (signature1.length != signature2.length) {
+      throw new IllegalArgumentException("The signatures have a different length.");
+    }
+
+    int equal = 0;
+
+    for (int i = 0; i < signature1.length; ++i) {
+      if (signature1[i] == signature2[i]) {
+        ++equal;
+      }
+    }
+
+    return signature1.length == 0 ? 0.0 : ((double) equal) / signature1.length;
+  }
+
+  private long[] newSignature() {
+    final long[] result = new long[seeds.length];
+
+    fill(result, MAX_VALUE);
+
+    return result;
+  }
+
+  /**
+   * Computes the signature of a set of hashes. Duplicates don't matter.
+   *
+   * @param hashes the hashes.
+   * @return The signature.
+   */
+  public long[] signature(final LongStream hashes) {
+    final long[] result = newSignature();
+
+    hashes.forEach(h -> update(result, h));
+
+    return result;
+  }
+
+  /**
+   * Computes the signature of the shingles of <code>text</code>. No strings are created for them.
+   *
+   * @param text the text.
+   * @param minSize the minimum length of the shingles.
+   * @param maxSize the maximum length of the shingles.
+   * @return The signature.
+   * @see Shingles#hashes(CharSequence, int, int, java.util.function.LongConsumer)
+   */
+  public long[] signature(final CharSequence text, final int minSize, final int maxSize) {
+    final long[] result = newSignature();
+
+    Shingles.hashes(text, minSize, maxSize, h -> update(result, h));
+
+    return result;
+  }
+
+  /**
+   * Computes the signatures of the shingles of <code>texts</code> in parallel on the common
+   * fork-join pool.
+   *
+   * @param texts the texts.
+   * @param minSize the minimum length of the shingles.
+   * @param maxSize the maximum length of the shingles.
+   * @return The signatures, in the order of <code>texts</code>.
+   */
+  public long[][] signatures(
+      final List<? extends CharSequence> texts, final int minSize, final int maxSize) {
+    return IntStream.range(0, texts.size())
+        .parallel()
+        .mapToObj(i -> signature(texts.get(i), minSize, maxSize))
+        .toArray(long[][]::new);
+  }
+
+  /**
+   * Returns the number of hash functions.
+   *
+   * @return The length of the signatures.
+   */
+  public int size() {
+    return seeds.length;
+  }
+
+  private void update(final long[] signature, final long hash) {
+    for (int i = 0; i < seeds.length; ++i) {
+      final long value = mix(hash ^ seeds[i]);
+
+      if (value < signature[i]) {
+        signature[i] = value;
+      }
+    }
+  }
+}
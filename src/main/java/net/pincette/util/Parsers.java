@@ -0,0 +1,482 @@
+package net.pincette.util;
+
+import static java.lang.Character.digit;
+import static java.time.Year.isLeap;
+import static java.util.Optional.empty;
+import static net.pincette.util.Util.tryToGetSilent;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Validators and parsers that don't throw exceptions for invalid input. Creating an exception and
+ * filling in its stack trace makes a negative check many times slower than a positive one. These
+ * functions scan the input only once and don't allocate anything, except for the rare forms that
+ * are delegated to the JDK.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class Parsers {
+  private static final long SECONDS_PER_DAY = 86400;
+
+  private Parsers() {}
+
+  private static int count(final CharSequence s, final char c) {
+    int result = 0;
+
+    for (int i = 0; i < s.length(); ++i) {
+      if (s.charAt(i) == c) {
+        ++result;
+      }
+    }
+
+    return result;
+  }
+
+  private static boolean digits(final CharSequence s, final int start, final int end) {
+    if (end > s.length()) {
+      return false;
+    }
+
+    for (int i = start; i < end; ++i) {
+      if (!isDigit(s.charAt(i))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static int hexDigits(final CharSequence s, final int start, final int end) {
+    int i = start;
+
+    while (i < end && digit(s.charAt(i), 16) != -1) {
+      ++i;
+    }
+
+    return i;
+  }
+
+  private static boolean isAsciiLetter(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Checks if <code>s</code> is a local date in the format of <code>LocalDate.parse</code>.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isDate(final CharSequence s) {
+    if (!s.isEmpty() && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+      return tryToGetSilent(() -> LocalDate.parse(s)).isPresent();
+    }
+
+    return s.length() == 10
+        && digits(s, 0, 4)
+        && s.charAt(4) == '-'
+        && digits(s, 5, 7)
+        && s.charAt(7) == '-'
+        && digits(s, 8, 10)
+        && isValidDate(number(s, 0, 4), number(s, 5, 7), number(s, 8, 10));
+  }
+
+  /**
+   * Checks if <code>s</code> is accepted by <code>Double.parseDouble</code>, which has the same
+   * syntax as <code>Float.parseFloat</code>.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isDouble(final CharSequence s) {
+    int start = 0;
+    int end = s.length();
+
+    while (start < end && s.charAt(start) <= ' ') {
+      ++start;
+    }
+
+    while (end > start && s.charAt(end - 1) <= ' ') {
+      --end;
+    }
+
+    if (start < end && (s.charAt(start) == '+' || s.charAt(start) == '-')) {
+      ++start;
+    }
+
+    if (start == end) {
+      return false;
+    }
+
+    if (s.charAt(start) == 'N' || s.charAt(start) == 'I') {
+      return regionEquals(s, start, end, "NaN") || regionEquals(s, start, end, "Infinity");
+    }
+
+    return isHexStart(s, start, end)
+        ? isHexFloatingPoint(s, start + 2, end)
+        : isDecimalFloatingPoint(s, start, end);
+  }
+
+  private static boolean isDecimalFloatingPoint(
+      final CharSequence s, final int start, final int end) {
+    int i = start;
+    int digits = 0;
+
+    while (i < end && isDigit(s.charAt(i))) {
+      ++i;
+      ++digits;
+    }
+
+    if (i < end && s.charAt(i) == '.') {
+      ++i;
+
+      while (i < end && isDigit(s.charAt(i))) {
+        ++i;
+        ++digits;
+      }
+    }
+
+    if (digits == 0) {
+      return false;
+    }
+
+    if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i = signedDigits(s, i + 1, end);
+
+      if (i == -1) {
+        return false;
+      }
+    }
+
+    return isSuffix(s, i, end);
+  }
+
+  private static boolean isHexFloatingPoint(final CharSequence s, final int start, final int end) {
+    int i = hexDigits(s, start, end);
+    int digits = i - start;
+
+    if (i < end && s.charAt(i) == '.') {
+      final int fraction = i + 1;
+
+      i = hexDigits(s, fraction, end);
+      digits += i - fraction;
+    }
+
+    if (digits == 0 || i == end || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+      return false;
+    }
+
+    i = signedDigits(s, i + 1, end);
+
+    return i != -1 && isSuffix(s, i, end);
+  }
+
+  private static boolean isHexStart(final CharSequence s, final int start, final int end) {
+    return end - start > 2
+        && s.charAt(start) == '0'
+        && (s.charAt(start + 1) == 'x' || s.charAt(start + 1) == 'X');
+  }
+
+  /**
+   * Checks if <code>s</code> has the form <code>yyyy-MM-ddTHH:mm:ss</code>, optionally followed
+   * by a fraction and then by "Z" or "+00:00". The values of the fields are not checked. Use
+   * {@link #parseInstant(CharSequence)} for that.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isInstant(final CharSequence s) {
+    return timeEnd(s) != -1;
+  }
+
+  /**
+   * Checks if <code>s</code> is accepted by <code>Integer.parseInt</code>.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isInteger(final CharSequence s) {
+    return isLong(s, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Checks if <code>s</code> is accepted by <code>Long.parseLong</code>.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isLong(final CharSequence s) {
+    return isLong(s, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  private static boolean isLong(final CharSequence s, final long min, final long max) {
+    final int length = s.length();
+
+    if (length == 0) {
+      return false;
+    }
+
+    final char first = s.charAt(0);
+    final long limit = first == '-' ? min : -max;
+    final long multiplicationLimit = limit / 10;
+    int i = first == '-' || first == '+' ? 1 : 0;
+    long result = 0;
+
+    if (i == length) {
+      return false;
+    }
+
+    // Accumulating negatively covers the minimum value, which has no positive counterpart.
+    while (i < length) {
+      final int d = digit(s.charAt(i++), 10);
+
+      if (d == -1 || result < multiplicationLimit) {
+        return false;
+      }
+
+      result *= 10;
+
+      if (result < limit + d) {
+        return false;
+      }
+
+      result -= d;
+    }
+
+    return true;
+  }
+
+  private static boolean isCanonicalUUID(final CharSequence s) {
+    for (int i = 0; i < 36; ++i) {
+      final char c = s.charAt(i);
+
+      if (i == 8 || i == 13 || i == 18 || i == 23 ? c != '-' : digit(c, 16) == -1) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean isSuffix(final CharSequence s, final int start, final int end) {
+    return start == end || (start == end - 1 && "fFdD".indexOf(s.charAt(start)) != -1);
+  }
+
+  /**
+   * Checks if <code>s</code> is accepted by <code>UUID.fromString</code>. The canonical form is
+   * checked without exceptions. Other strings with four dashes are rare and are delegated.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isUUID(final CharSequence s) {
+    return (s.length() == 36 && isCanonicalUUID(s))
+        || (s.length() <= 36
+            && count(s, '-') == 4
+            && tryToGetSilent(() -> UUID.fromString(s.toString())).isPresent());
+  }
+
+  /**
+   * Checks if <code>s</code> is an absolute URI. Strings that don't start with a scheme are
+   * rejected without parsing them.
+   *
+   * @param s the given string.
+   * @return The check result.
+   */
+  public static boolean isUri(final String s) {
+    return schemeEnd(s) != -1
+        && tryToGetSilent(() -> new URI(s)).map(URI::isAbsolute).orElse(false);
+  }
+
+  private static boolean isValidDate(final int year, final int month, final int day) {
+    return month >= 1
+        && month <= 12
+        && day >= 1
+        && day <= (month == 2 ? (isLeap(year) ? 29 : 28) : (30 + ((month + (month >> 3)) & 1)));
+  }
+
+  private static int number(final CharSequence s, final int start, final int end) {
+    int result = 0;
+
+    for (int i = start; i < end; ++i) {
+      result = result * 10 + (s.charAt(i) - '0');
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses <code>s</code> as a <code>double</code>.
+   *
+   * @param s the given string.
+   * @param defaultValue the value that is returned when <code>s</code> is not a number.
+   * @return The parsed value or the default value.
+   */
+  public static double parseDoubleOrDefault(final CharSequence s, final double defaultValue) {
+    return isDouble(s) ? Double.parseDouble(s.toString()) : defaultValue;
+  }
+
+  /**
+   * Parses the forms that are accepted by {@link #isInstant(CharSequence)}. A string without a
+   * zone is in UTC.
+   *
+   * @param s the given string.
+   * @return The instant, which is empty if the string is not valid.
+   */
+  public static Optional<Instant> parseInstant(final CharSequence s) {
+    final int end = timeEnd(s);
+
+    if (end == -1) {
+      return empty();
+    }
+
+    final int year = number(s, 0, 4);
+    final int month = number(s, 5, 7);
+    final int day = number(s, 8, 10);
+    final int hour = number(s, 11, 13);
+    final int minute = number(s, 14, 16);
+    final int second = number(s, 17, 19);
+
+    if (!isValidDate(year, month, day) || hour > 23 || minute > 59 || second > 59) {
+      return empty();
+    }
+
+    int nanos = 0;
+
+    for (int i = 20, scale = 100_000_000; i < end && scale > 0; ++i, scale /= 10) {
+      nanos += (s.charAt(i) - '0') * scale;
+    }
+
+    return Optional.of(
+        Instant.ofEpochSecond(
+            LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY
+                + hour * 3600L
+                + minute * 60L
+                + second,
+            nanos));
+  }
+
+  /**
+   * Parses <code>s</code> as an <code>int</code> with the syntax of <code>Integer.parseInt</code>.
+   *
+   * @param s the given string.
+   * @param defaultValue the value that is returned when <code>s</code> is not a valid integer.
+   * @return The parsed value or the default value.
+   */
+  public static int parseIntOrDefault(final CharSequence s, final int defaultValue) {
+    return isInteger(s) ? (int) value(s) : defaultValue;
+  }
+
+  /**
+   * Parses <code>s</code> as a <code>long</code> with the syntax of <code>Long.parseLong</code>.
+   *
+   * @param s the given string.
+   * @param defaultValue the value that is returned when <code>s</code> is not a valid long.
+   * @return The parsed value or the default value.
+   */
+  public static long parseLongOrDefault(final CharSequence s, final long defaultValue) {
+    return isLong(s) ? value(s) : defaultValue;
+  }
+
+  private static boolean regionEquals(
+      final CharSequence s, final int start, final int end, final String value) {
+    if (end - start != value.length()) {
+      return false;
+    }
+
+    for (int i = 0; i < value.length(); ++i) {
+      if (s.charAt(start + i) != value.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static int schemeEnd(final String s) {
+    if (s.isEmpty() || !isAsciiLetter(s.charAt(0))) {
+      return -1;
+    }
+
+    for (int i = 1; i < s.length(); ++i) {
+      final char c = s.charAt(i);
+
+      if (c == ':') {
+        return i;
+      }
+
+      if (!isAsciiLetter(c) && !isDigit(c) && c != '+' && c != '-' && c != '.') {
+        return -1;
+      }
+    }
+
+    return -1;
+  }
+
+  private static int signedDigits(final CharSequence s, final int start, final int end) {
+    int i = start < end && (s.charAt(start) == '+' || s.charAt(start) == '-') ? start + 1 : start;
+    final int digitsStart = i;
+
+    while (i < end && isDigit(s.charAt(i))) {
+      ++i;
+    }
+
+    return i > digitsStart ? i : -1;
+  }
+
+  // Returns the position after the seconds and the fraction, or -1 if it isn't an instant.
+  private static int timeEnd(final CharSequence s) {
+    if (!(s.length() >= 19
+        && digits(s, 0, 4)
+        && s.charAt(4) == '-'
+        && digits(s, 5, 7)
+        && s.charAt(7) == '-'
+        && digits(s, 8, 10)
+        && s.charAt(10) == 'T'
+        && digits(s, 11, 13)
+        && s.charAt(13) == ':'
+        && digits(s, 14, 16)
+        && s.charAt(16) == ':'
+        && digits(s, 17, 19))) {
+      return -1;
+    }
+
+    int end = 19;
+
+    if (end < s.length() && s.charAt(end) == '.') {
+      while (++end < s.length() && isDigit(s.charAt(end))) {
+        // Skip the fraction.
+      }
+
+      if (end == 20) {
+        return -1;
+      }
+    }
+
+    return end == s.length()
+            || regionEquals(s, end, s.length(), "Z")
+            || regionEquals(s, end, s.length(), "+00:00")
+        ? end
+        : -1;
+  }
+
+  // The string must be a valid long.
+  private static long value(final CharSequence s) {
+    final boolean negative = s.charAt(0) == '-';
+    long result = 0;
+
+    for (int i = negative || s.charAt(0) == '+' ? 1 : 0; i < s.length(); ++i) {
+      result = result * 10 - digit(s.charAt(i), 10);
+    }
+
+    return negative ? result : -result;
+  }
+}
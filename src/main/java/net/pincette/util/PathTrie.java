@@ -0,0 +1,222 @@
+package net.pincette.util;
+
+import static java.util.Optional.ofNullable;
+import static net.pincette.util.ShadowString.shadow;
+import static net.pincette.util.StreamUtil.takeWhile;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe trie of paths with segments that are separated by a literal delimiter. A path is
+ * resolved only once. After that its node has the canonical path string, the parent and the
+ * ancestors without any further string processing. The paths are canonical in the sense of {@link
+ * Util#canonicalPath(String, String)}: they are absolute, empty and "." segments are dropped and
+ * ".." segments go one level up. The parent of the root is the root itself.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class PathTrie {
+  private final String delimiter;
+  private final AtomicInteger size = new AtomicInteger(1);
+  private final Node root;
+
+  /**
+   * Creates an empty trie.
+   *
+   * @param delimiter the literal string that separates the path segments.
+   */
+  public PathTrie(final String delimiter) {
+    if (delimiter.isEmpty()) {
+      throw new IllegalArgumentException("The delimiter can't be empty.");
+    }
+
+    this.delimiter = delimiter;
+    root = new Node(null, "");
+  }
+
+  /**
+   * Returns the canonical form of <code>path</code>, which is interned in the trie.
+   *
+   * @param path the given path.
+   * @return The canonical path.
+   */
+  public String canonicalPath(final String path) {
+    return intern(path).path();
+  }
+
+  /**
+   * Returns all nodes under the node of <code>path</code>, including that node itself. Nothing is
+   * added to the trie.
+   *
+   * @param path the given path.
+   * @return The stream of nodes, which is empty if the path is not in the trie.
+   */
+  public Stream<Node> descendants(final String path) {
+    return find(path).map(Node::descendants).orElseGet(Stream::empty);
+  }
+
+  /**
+   * Looks up the node for <code>path</code> without adding anything to the trie.
+   *
+   * @param path the given path.
+   * @return The optional node.
+   */
+  public Optional<Node> find(final String path) {
+    return ofNullable(resolve(path, false));
+  }
+
+  /**
+   * Returns the canonical parent path of <code>path</code>, which is interned in the trie.
+   *
+   * @param path the given path.
+   * @return The parent path.
+   */
+  public String getParent(final String path) {
+    return intern(path).parent().path();
+  }
+
+  /**
+   * Returns the node for <code>path</code>, which is created when it doesn't exist yet.
+   *
+   * @param path the given path.
+   * @return The node.
+   */
+  public Node intern(final String path) {
+    return resolve(path, true);
+  }
+
+  private Node resolve(final String path, final boolean create) {
+    final SegmentCursor cursor = new SegmentCursor(path, delimiter);
+    Node node = root;
+
+    while (node != null && cursor.next()) {
+      if (cursor.contentEquals("..")) {
+        node = node.parent();
+      } else if (!cursor.isEmpty() && !cursor.contentEquals(".")) {
+        node = node.child(shadow(path, cursor.start(), cursor.end()), create);
+      }
+    }
+
+    return node;
+  }
+
+  public Node root() {
+    return root;
+  }
+
+  /**
+   * Returns the number of nodes in the trie, including the root.
+   *
+   * @return The number of nodes.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * A path in the trie.
+   *
+   * @since 2.6
+   */
+  public class Node {
+    private final Map<ShadowString, Node> children = new ConcurrentHashMap<>();
+    private final int depth;
+    private final String name;
+    private final Node parent;
+    private volatile String path;
+
+    private Node(final Node parent, final String name) {
+      this.parent = parent;
+      this.name = name;
+      depth = parent != null ? (parent.depth + 1) : 0;
+    }
+
+    /**
+     * Returns the stream of nodes from this one up to the root. This corresponds to {@link
+     * Util#allPaths(String, String)}.
+     *
+     * @return The node stream.
+     */
+    public Stream<Node> ancestors() {
+      return takeWhile(this, n -> n.parent, n -> n != null);
+    }
+
+    private Node child(final ShadowString key, final boolean create) {
+      final Node child = children.get(key);
+
+      if (child != null || !create) {
+        return child;
+      }
+
+      final String childName = key.toString();
+
+      return children.computeIfAbsent(
+          shadow(childName),
+          k -> {
+            size.incrementAndGet();
+
+            return new Node(this, childName);
+          });
+    }
+
+    public Stream<Node> children() {
+      return children.values().stream();
+    }
+
+    public int depth() {
+      return depth;
+    }
+
+    /**
+     * Returns this node and all nodes under it in depth-first order.
+     *
+     * @return The node stream.
+     */
+    public Stream<Node> descendants() {
+      return Stream.concat(Stream.of(this), children().flatMap(Node::descendants));
+    }
+
+    public boolean isRoot() {
+      return parent == null;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public Node parent() {
+      return parent != null ? parent : this;
+    }
+
+    /**
+     * Returns the canonical path of the node. It is computed only once.
+     *
+     * @return The path.
+     */
+    public String path() {
+      String result = path;
+
+      if (result == null) {
+        if (parent == null) {
+          result = delimiter;
+        } else {
+          result = (parent.parent == null ? delimiter : (parent.path() + delimiter)) + name;
+        }
+
+        path = result;
+      }
+
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return path();
+    }
+  }
+}
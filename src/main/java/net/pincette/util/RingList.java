@@ -0,0 +1,283 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+import static java.util.Objects.checkIndex;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * A list with a fixed capacity that is backed by a circular buffer. Adding an element to a full
+ * list drops the element at the other end. Shifting the list over one position costs constant time,
+ * which makes it suitable for sliding windows.
+ *
+ * @param <T> the element type.
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class RingList<T> extends AbstractList<T> implements RandomAccess {
+  private final Object[] elements;
+  private int head;
+  private int size;
+
+  /**
+   * Creates an empty list.
+   *
+   * @param capacity the maximum number of elements the list can hold.
+   */
+  public RingList(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity should be at least 1.");
+    }
+
+    elements = new Object[capacity];
+  }
+
+  /**
+   * Creates a full list with the elements of <code>collection</code>. Its capacity is the size of
+   * the collection, with a minimum of 1.
+   *
+   * @param collection the given collection.
+   */
+  public RingList(final Collection<? extends T> collection) {
+    this(max(collection.size(), 1), collection);
+  }
+
+  /**
+   * Creates a list with the elements of <code>collection</code>. If there are more elements than
+   * <code>capacity</code> only the last ones are retained.
+   *
+   * @param capacity the maximum number of elements the list can hold.
+   * @param collection the given collection.
+   */
+  public RingList(final int capacity, final Collection<? extends T> collection) {
+    this(capacity);
+
+    final int skip = collection.size() - capacity;
+    int i = 0;
+
+    for (final T element : collection) {
+      if (i++ >= skip) {
+        elements[size++] = element;
+      }
+    }
+  }
+
+  /**
+   * Adds the element at the end of the list. If the list is full the first element is dropped.
+   *
+   * @param element the new element.
+   * @return Always <code>true</code>.
+   */
+  @Override
+  public boolean add(final T element) {
+    addLast(element);
+
+    return true;
+  }
+
+  /**
+   * Adds the element at the start of the list. If the list is full the last element is dropped.
+   *
+   * @param element the new element.
+   */
+  @Override
+  public void addFirst(final T element) {
+    head = previous(head);
+    elements[head] = element;
+
+    if (size < elements.length) {
+      ++size;
+    }
+
+    ++modCount;
+  }
+
+  /**
+   * Adds the element at the end of the list. If the list is full the first element is dropped.
+   *
+   * @param element the new element.
+   */
+  @Override
+  public void addLast(final T element) {
+    if (size == elements.length) {
+      elements[head] = element;
+      head = next(head);
+    } else {
+      elements[slot(size++)] = element;
+    }
+
+    ++modCount;
+  }
+
+  public int capacity() {
+    return elements.length;
+  }
+
+  @Override
+  public void clear() {
+    fill(elements, null);
+    head = 0;
+    size = 0;
+    ++modCount;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(final int index) {
+    checkIndex(index, size);
+
+    return (T) elements[slot(index)];
+  }
+
+  public boolean isFull() {
+    return size == elements.length;
+  }
+
+  private int next(final int position) {
+    return position == elements.length - 1 ? 0 : (position + 1);
+  }
+
+  private int previous(final int position) {
+    return position == 0 ? (elements.length - 1) : (position - 1);
+  }
+
+  @Override
+  public T remove(final int index) {
+    checkIndex(index, size);
+
+    if (index == 0) {
+      return removeFirst();
+    }
+
+    if (index == size - 1) {
+      return removeLast();
+    }
+
+    final T result = get(index);
+
+    for (int i = index; i < size - 1; ++i) {
+      elements[slot(i)] = elements[slot(i + 1)];
+    }
+
+    elements[slot(--size)] = null;
+    ++modCount;
+
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T removeFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+
+    final T result = (T) elements[head];
+
+    elements[head] = null;
+    head = next(head);
+    --size;
+    ++modCount;
+
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T removeLast() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+
+    final int last = slot(size - 1);
+    final T result = (T) elements[last];
+
+    elements[last] = null;
+    --size;
+    ++modCount;
+
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T set(final int index, final T element) {
+    checkIndex(index, size);
+
+    final int s = slot(index);
+    final T result = (T) elements[s];
+
+    elements[s] = element;
+
+    return result;
+  }
+
+  /**
+   * Removes the first <code>positions</code> elements from the list and adds <code>newElement
+   * </code> <code>positions</code> times at the end of the list. The list is modified in place.
+   *
+   * @param positions the number of positions over which to shift. If it is larger than the list
+   *     size it will be reduced to the list size.
+   * @param newElement the element that is shifted in.
+   * @return The list itself.
+   * @see Collections#shiftDown(java.util.List, int, Object)
+   */
+  public RingList<T> shiftDown(final int positions, final T newElement) {
+    final int pos = min(positions, size);
+
+    for (int i = 0; i < pos; ++i) {
+      removeFirst();
+      addLast(newElement);
+    }
+
+    return this;
+  }
+
+  /**
+   * Removes the last <code>positions</code> elements from the list and adds <code>newElement
+   * </code> <code>positions</code> times at the start of the list. The list is modified in place.
+   *
+   * @param positions the number of positions over which to shift. If it is larger than the list
+   *     size it will be reduced to the list size.
+   * @param newElement the element that is shifted in.
+   * @return The list itself.
+   * @see Collections#shiftUp(java.util.List, int, Object)
+   */
+  public RingList<T> shiftUp(final int positions, final T newElement) {
+    final int pos = min(positions, size);
+
+    for (int i = 0; i < pos; ++i) {
+      removeLast();
+      addFirst(newElement);
+    }
+
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private int slot(final int index) {
+    final int s = head + index;
+
+    return s >= elements.length ? (s - elements.length) : s;
+  }
+
+  @Override
+  public Object[] toArray() {
+    final Object[] result = new Object[size];
+    final int first = min(size, elements.length - head);
+
+    System.arraycopy(elements, head, result, 0, first);
+    System.arraycopy(elements, 0, result, first, size - first);
+
+    return result;
+  }
+}
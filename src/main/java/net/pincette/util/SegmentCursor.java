@@ -0,0 +1,219 @@
+package net.pincette.util;
+
+import static java.util.Objects.checkFromToIndex;
+import static java.util.Objects.checkIndex;
+import static net.pincette.util.ShadowString.shadow;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Walks over the segments in a string that are separated by a literal delimiter, without allocating
+ * anything per segment. The cursor itself is the character sequence of the current segment, so it
+ * changes with every call to {@link #next()}. Call {@link #toString()} to keep a segment. The
+ * segments are the same as those of {@link Util#segmentIterator(String, String)}, which means they
+ * may be empty.
+ *
+ * <p>A cursor is not thread-safe, but it can be reused for other strings with {@link
+ * #reset(String)}.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class SegmentCursor implements CharSequence {
+  private final String delimiter;
+  private final char delimiterChar;
+  private int end = -1;
+  private int lastEnd = -1;
+  private String s;
+  private int start = -1;
+
+  /**
+   * Creates a cursor.
+   *
+   * @param s the string that is split.
+   * @param delimiter the literal string that separates the segments.
+   */
+  public SegmentCursor(final String s, final String delimiter) {
+    if (delimiter.isEmpty()) {
+      throw new IllegalArgumentException("The delimiter can't be empty.");
+    }
+
+    this.delimiter = delimiter;
+    this.delimiterChar = delimiter.charAt(0);
+    this.s = s;
+  }
+
+  /**
+   * Creates a cursor with a one character delimiter, which is the fastest case.
+   *
+   * @param s the string that is split.
+   * @param delimiter the character that separates the segments.
+   */
+  public SegmentCursor(final String s, final char delimiter) {
+    this(s, String.valueOf(delimiter));
+  }
+
+  /**
+   * Puts the start and end offsets of the non-empty segments in <code>offsets</code>, which is
+   * cleared first. The offsets of segment <code>i</code> are at positions <code>2 * i</code> and
+   * <code>2 * i + 1</code>. The list can be reused for many calls.
+   *
+   * @param s the string that is split.
+   * @param delimiter the literal string that separates the segments.
+   * @param offsets the list that receives the offsets.
+   * @return The number of segments.
+   */
+  public static int offsets(final String s, final String delimiter, final IntArrayList offsets) {
+    final SegmentCursor cursor = new SegmentCursor(s, delimiter);
+
+    offsets.clear();
+
+    while (cursor.next()) {
+      if (cursor.start < cursor.end) {
+        offsets.add(cursor.start).add(cursor.end);
+      }
+    }
+
+    return offsets.size() / 2;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    checkIndex(index, length());
+
+    return s.charAt(start + index);
+  }
+
+  private void checkCurrent() {
+    if (start == -1) {
+      throw new NoSuchElementException();
+    }
+  }
+
+  /**
+   * Compares the current segment with <code>other</code> without allocating anything.
+   *
+   * @param other the given character sequence.
+   * @return <code>true</code> if the characters are the same.
+   */
+  public boolean contentEquals(final CharSequence other) {
+    final int length = length();
+
+    if (other.length() != length) {
+      return false;
+    }
+
+    for (int i = 0; i < length; ++i) {
+      if (s.charAt(start + i) != other.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the position after the current segment in the string.
+   *
+   * @return The end offset.
+   */
+  public int end() {
+    checkCurrent();
+
+    return end;
+  }
+
+  private int indexOfDelimiter(final int from) {
+    return delimiter.length() == 1 ? s.indexOf(delimiterChar, from) : s.indexOf(delimiter, from);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return length() == 0;
+  }
+
+  @Override
+  public int length() {
+    checkCurrent();
+
+    return end - start;
+  }
+
+  /**
+   * Moves to the next segment.
+   *
+   * @return <code>false</code> if there are no more segments.
+   */
+  public boolean next() {
+    final int from = lastEnd == -1 ? 0 : lastEnd;
+    final int index = indexOfDelimiter(from);
+
+    if (index != -1) {
+      start = from;
+      end = index;
+      lastEnd = index + delimiter.length();
+    } else if (lastEnd < s.length()) {
+      start = from;
+      end = s.length();
+      lastEnd = s.length();
+    } else {
+      start = -1;
+      end = -1;
+    }
+
+    return start != -1;
+  }
+
+  /**
+   * Starts over with another string.
+   *
+   * @param s the string that is split.
+   * @return The cursor itself.
+   */
+  public SegmentCursor reset(final String s) {
+    this.s = s;
+    lastEnd = -1;
+    start = -1;
+    end = -1;
+
+    return this;
+  }
+
+  /**
+   * Returns the position of the current segment in the string.
+   *
+   * @return The start offset.
+   */
+  public int start() {
+    checkCurrent();
+
+    return start;
+  }
+
+  /**
+   * Returns a stable view of a part of the current segment. It remains valid after the cursor has
+   * moved.
+   *
+   * @param start the start position in the segment.
+   * @param end the end position in the segment.
+   * @return The view.
+   */
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    checkFromToIndex(start, end, length());
+
+    return shadow(s, this.start + start, this.start + end);
+  }
+
+  /**
+   * Returns a copy of the current segment.
+   *
+   * @return The segment string.
+   */
+  @Override
+  public String toString() {
+    checkCurrent();
+
+    return start == 0 && end == s.length() ? s : s.substring(start, end);
+  }
+}
@@ -1,15 +1,19 @@
 package net.pincette.util;
 
 import static java.lang.CharSequence.compare;
+import static java.lang.Math.min;
 
 /**
- * A representation of a string that doesn't copy the underlying string.
+ * A representation of a string that doesn't copy the underlying string. The hash code is computed
+ * only once and is the same as the one of the equivalent <code>String</code>.
  *
  * @author Werner Donné
  * @since 2.0.4
  */
-public class ShadowString implements CharSequence {
+public class ShadowString implements CharSequence, Comparable<ShadowString> {
   private final int end;
+  private int hash;
+  private boolean hashIsZero;
   private final String s;
   private final int start;
 
@@ -36,20 +40,104 @@ public class ShadowString implements CharSequence {
     return s.charAt(start + index);
   }
 
+  /**
+   * Compares lexicographically like <code>String.compareTo</code>.
+   *
+   * @param other the other string.
+   * @return The comparison result.
+   * @since 2.6
+   */
+  @Override
+  public int compareTo(final ShadowString other) {
+    if (sameRange(other)) {
+      return 0;
+    }
+
+    final int length = min(length(), other.length());
+
+    for (int i = 0; i < length; ++i) {
+      final char c1 = s.charAt(start + i);
+      final char c2 = other.s.charAt(other.start + i);
+
+      if (c1 != c2) {
+        return c1 - c2;
+      }
+    }
+
+    return length() - other.length();
+  }
+
+  /**
+   * Checks if this string ends with <code>suffix</code>.
+   *
+   * @param suffix the given suffix.
+   * @return The check result.
+   * @since 2.6
+   */
+  public boolean endsWith(final String suffix) {
+    return suffix.length() <= length()
+        && s.regionMatches(end - suffix.length(), suffix, 0, suffix.length());
+  }
+
   @Override
   public boolean equals(final Object o) {
-    return o instanceof CharSequence cs && compare(this, cs) == 0;
+    return this == o
+        || switch (o) {
+          case ShadowString ss ->
+              sameRange(ss)
+                  || (ss.length() == length()
+                      && (hash == 0 || ss.hash == 0 || hash == ss.hash)
+                      && s.regionMatches(start, ss.s, ss.start, length()));
+          case String str -> str.length() == length() && s.regionMatches(start, str, 0, length());
+          case CharSequence cs -> compare(this, cs) == 0;
+          case null, default -> false;
+        };
   }
 
   @Override
   public int hashCode() {
-    int h = 0;
+    if (hash == 0 && !hashIsZero) {
+      int h = 0;
+
+      for (int i = start; i < end; ++i) {
+        h = 31 * h + s.charAt(i);
+      }
 
-    for (int i = start; i < end; ++i) {
-      h = 31 * h + s.charAt(i);
+      if (h == 0) {
+        hashIsZero = true;
+      } else {
+        hash = h;
+      }
     }
 
-    return h;
+    return hash;
+  }
+
+  /**
+   * Returns the position of the first occurrence of <code>c</code>.
+   *
+   * @param c the character to look for.
+   * @return The position in this string or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public int indexOf(final char c) {
+    return position(s.indexOf(c, start, end));
+  }
+
+  /**
+   * Returns the position of the first occurrence of <code>str</code>.
+   *
+   * @param str the string to look for.
+   * @return The position in this string or -1 if it doesn't occur.
+   * @since 2.6
+   */
+  public int indexOf(final String str) {
+    return position(s.indexOf(str, start, end));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return start == end;
   }
 
   @Override
@@ -57,6 +145,25 @@ public class ShadowString implements CharSequence {
     return end - start;
   }
 
+  private int position(final int index) {
+    return index != -1 ? (index - start) : -1;
+  }
+
+  private boolean sameRange(final ShadowString other) {
+    return other.s == s && other.start == start && other.end == end;
+  }
+
+  /**
+   * Checks if this string starts with <code>prefix</code>.
+   *
+   * @param prefix the given prefix.
+   * @return The check result.
+   * @since 2.6
+   */
+  public boolean startsWith(final String prefix) {
+    return prefix.length() <= length() && s.startsWith(prefix, start);
+  }
+
   @Override
   public CharSequence subSequence(final int start, final int end) {
     return shadow(s, this.start + start, this.start + end);
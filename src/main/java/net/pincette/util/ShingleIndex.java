@@ -0,0 +1,296 @@
+package net.pincette.util;
+
+import static java.lang.Math.min;
+import static java.util.Arrays.sort;
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.reverseOrder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.LongStream;
+
+/**
+ * An in-memory inverted index from shingle hashes to sorted lists of document identifiers. The
+ * shingles are those of {@link Shingles#hashes(CharSequence, int, int)}, with the same minimum and
+ * maximum sizes as {@link Shingles#generate(String, int, int)}, but no strings are kept. It
+ * supports substring search, which intersects postings, and fuzzy search, which ranks documents by
+ * the number of shingles they share with the query.
+ *
+ * <p>The index is not thread-safe. It can be queried by several threads after {@link #compact()}
+ * when no documents are added anymore.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ShingleIndex {
+  private static final Comparator<Match> WORST_FIRST =
+      comparingInt(Match::score).thenComparing(Match::id, reverseOrder());
+
+  private final int maxSize;
+  private final int minSize;
+  private final Long2ObjectHashMap<IntArrayList> postings = new Long2ObjectHashMap<>();
+  private boolean compacted = true;
+  private int documents;
+  private int lastId = Integer.MIN_VALUE;
+  private boolean sorted = true;
+
+  /**
+   * Creates an empty index.
+   *
+   * @param minSize the minimum length of the shingles.
+   * @param maxSize the maximum length of the shingles.
+   */
+  public ShingleIndex(final int minSize, final int maxSize) {
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+  }
+
+  private static int gallop(final IntArrayList list, final int from, final int value) {
+    int bound = 1;
+
+    while (from + bound < list.size() && list.get(from + bound) < value) {
+      bound <<= 1;
+    }
+
+    int low = from + (bound >> 1);
+    int high = min(from + bound, list.size());
+
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+
+      if (list.get(middle) < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  private static int[] intersect(final List<IntArrayList> lists, final int limit) {
+    lists.sort(comparingInt(IntArrayList::size));
+
+    final IntArrayList shortest = lists.get(0);
+    final int[] positions = new int[lists.size()];
+    final IntArrayList result = new IntArrayList();
+
+    for (int i = 0; i < shortest.size() && result.size() < limit; ++i) {
+      final int id = shortest.get(i);
+      boolean all = true;
+
+      for (int j = 1; j < lists.size() && all; ++j) {
+        final IntArrayList list = lists.get(j);
+
+        positions[j] = gallop(list, positions[j], id);
+
+        if (positions[j] == list.size()) {
+          return result.toArray();
+        }
+
+        all = list.get(positions[j]) == id;
+      }
+
+      if (all) {
+        result.add(id);
+      }
+    }
+
+    return result.toArray();
+  }
+
+  /** Returns the smallest current document of the lists from <code>first</code> on. */
+  private static long smallest(
+      final List<IntArrayList> lists, final int[] positions, final int first) {
+    long result = Long.MAX_VALUE;
+
+    for (int i = first; i < lists.size(); ++i) {
+      final IntArrayList list = lists.get(i);
+
+      if (positions[i] < list.size()) {
+        result = Long.min(result, list.get(positions[i]));
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds a document. Each document should be added only once. Adding them in ascending order of
+   * their identifiers avoids sorting the postings afterwards.
+   *
+   * @param id the document.
+   * @param text the text of the document.
+   */
+  public void add(final int id, final CharSequence text) {
+    final LongHashSet seen = new LongHashSet();
+
+    Shingles.hashes(
+        text,
+        minSize,
+        maxSize,
+        h -> {
+          if (seen.add(h)) {
+            postings.computeIfAbsent(h, k -> new IntArrayList()).add(id);
+          }
+        });
+
+    sorted &= id > lastId;
+    lastId = id;
+    compacted = false;
+    ++documents;
+  }
+
+  /**
+   * Sorts the postings if needed and releases their spare capacity. Queries do this when it
+   * hasn't been done after the last addition.
+   */
+  public void compact() {
+    postings.forEach(
+        (k, v) -> {
+          if (!sorted) {
+            v.sort();
+          }
+
+          v.trimToSize();
+        });
+
+    sorted = true;
+    compacted = true;
+  }
+
+  /**
+   * Returns the number of documents.
+   *
+   * @return The number of documents.
+   */
+  public int size() {
+    return documents;
+  }
+
+  private List<IntArrayList> postings(final LongStream hashes) {
+    if (!compacted) {
+      compact();
+    }
+
+    final List<IntArrayList> result = new ArrayList<>();
+
+    hashes
+        .distinct()
+        .forEach(
+            h -> {
+              final IntArrayList list = postings.get(h);
+
+              if (list != null) {
+                result.add(list);
+              }
+            });
+
+    return result;
+  }
+
+  /**
+   * Returns the documents that contain all shingles of <code>query</code> with the largest size
+   * the index has for it. Every document that contains the query as a substring is returned. A
+   * document that contains all those shingles in another order is returned as well.
+   *
+   * @param query the query, which should have at least the minimum shingle size.
+   * @param limit the maximum number of documents that is returned.
+   * @return The documents in ascending order.
+   */
+  public int[] search(final CharSequence query, final int limit) {
+    final int size = min(query.length(), maxSize);
+
+    if (size < minSize || limit <= 0) {
+      return new int[0];
+    }
+
+    final long[] hashes = Shingles.hashes(query, size).distinct().toArray();
+    final List<IntArrayList> lists = postings(LongStream.of(hashes));
+
+    return lists.size() < hashes.length ? new int[0] : intersect(lists, limit);
+  }
+
+  /**
+   * Returns the <code>k</code> documents that share the most shingles with <code>query</code>,
+   * using all shingle sizes of the index. This tolerates typos, because a typo only breaks the
+   * shingles that overlap with it.
+   *
+   * <p>The postings are visited as in the MaxScore algorithm. Once <code>k</code> documents have
+   * been found, a document that only occurs in the <code>n</code> longest lists can't score more
+   * than <code>n</code>. Those lists are only probed for the documents of the other lists, which
+   * stops entirely when the lowest retained score reaches the number of lists.
+   *
+   * @param query the query.
+   * @param k the maximum number of documents.
+   * @return The matches with the highest score first. Equal scores are in ascending order of the
+   *     document.
+   */
+  public List<Match> top(final CharSequence query, final int k) {
+    final List<IntArrayList> lists = postings(Shingles.hashes(query, minSize, maxSize));
+    final int[] positions = new int[lists.size()];
+    final PriorityQueue<Match> best = new PriorityQueue<>(WORST_FIRST);
+    int threshold = 0;
+
+    lists.sort((l1, l2) -> Integer.compare(l2.size(), l1.size()));
+
+    while (k > 0) {
+      // A document that is only in the lists before "first" can't do better than the threshold.
+      final int first = min(threshold, lists.size());
+      final long next = smallest(lists, positions, first);
+
+      if (next == Long.MAX_VALUE) {
+        break;
+      }
+
+      final int id = (int) next;
+      int score = 0;
+
+      for (int i = first; i < lists.size(); ++i) {
+        final IntArrayList list = lists.get(i);
+
+        if (positions[i] < list.size() && list.get(positions[i]) == id) {
+          ++positions[i];
+          ++score;
+        }
+      }
+
+      for (int i = first - 1; i >= 0 && score + i + 1 > threshold; --i) {
+        final IntArrayList list = lists.get(i);
+
+        positions[i] = gallop(list, positions[i], id);
+
+        if (positions[i] < list.size() && list.get(positions[i]) == id) {
+          ++score;
+        }
+      }
+
+      if (best.size() < k) {
+        best.add(new Match(id, score));
+      } else if (score > threshold) {
+        best.poll();
+        best.add(new Match(id, score));
+      }
+
+      if (best.size() == k) {
+        threshold = best.peek().score();
+      }
+    }
+
+    final Match[] result = best.toArray(new Match[0]);
+
+    sort(result, WORST_FIRST.reversed());
+
+    return List.of(result);
+  }
+
+  /**
+   * A document with its number of matching shingles.
+   *
+   * @param id the document.
+   * @param score the number of distinct query shingles the document contains.
+   */
+  public record Match(int id, int score) {}
+}
@@ -3,9 +3,10 @@ package net.pincette.util;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.stream.Stream.empty;
-import static net.pincette.util.Pair.pair;
 import static net.pincette.util.StreamUtil.rangeInclusive;
 
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -14,6 +15,8 @@ import java.util.stream.Stream;
  * @author Werner Donné
  */
 public class Shingles {
+  private static final long BASE = 0x100000001B3L;
+
   private Shingles() {}
 
   /**
@@ -26,9 +29,7 @@ public class Shingles {
    * @return The stream of shingles.
    */
   public static Stream<String> generate(final String word, final int minSize, final int maxSize) {
-    return rangeInclusive(minSize, min(word.length(), maxSize))
-        .map(i -> pair(i, word))
-        .flatMap(pair -> generate(pair.second, pair.first));
+    return rangeInclusive(minSize, min(word.length(), maxSize)).flatMap(i -> generate(word, i));
   }
 
   /**
@@ -58,4 +59,114 @@ public class Shingles {
       final Stream<String> words, final int minSize, final int maxSize) {
     return words.flatMap(word -> generate(word, minSize, maxSize));
   }
+
+  /**
+   * Calls <code>consumer</code> with the hash of every shingle of <code>size</code> characters,
+   * without creating strings. It is a Rabin-Karp rolling hash, so each shingle costs a constant
+   * number of operations. Equal shingles get equal hashes. The bits of the hashes are mixed, so
+   * they can be used directly with {@link MinHash}.
+   *
+   * @param word the word that is transformed to shingles.
+   * @param size the size of the shingles. If it is larger than the length of the given word or
+   *     smaller than 1 then nothing is emitted.
+   * @param consumer the function that receives the hashes.
+   * @since 2.6
+   */
+  public static void hashes(final CharSequence word, final int size, final LongConsumer consumer) {
+    final int length = word.length();
+
+    if (size < 1 || size > length) {
+      return;
+    }
+
+    long hash = 0;
+    long power = 1;
+
+    for (int i = 0; i < size; ++i) {
+      hash = hash * BASE + word.charAt(i);
+
+      if (i > 0) {
+        power *= BASE;
+      }
+    }
+
+    consumer.accept(mix(hash, size));
+
+    for (int i = size; i < length; ++i) {
+      hash = (hash - word.charAt(i - size) * power) * BASE + word.charAt(i);
+      consumer.accept(mix(hash, size));
+    }
+  }
+
+  /**
+   * Calls <code>consumer</code> with the hash of every shingle with a size from <code>minSize
+   * </code> to <code>maxSize</code>. The order is the same as that of {@link #generate(String, int,
+   * int)}.
+   *
+   * @param word the word that is transformed to shingles.
+   * @param minSize the minimum length of the shingles.
+   * @param maxSize the maximum length of the shingles. It is limited by the length of the word.
+   * @param consumer the function that receives the hashes.
+   * @see #hashes(CharSequence, int, LongConsumer)
+   * @since 2.6
+   */
+  public static void hashes(
+      final CharSequence word, final int minSize, final int maxSize, final LongConsumer consumer) {
+    for (int size = max(minSize, 1); size <= min(word.length(), maxSize); ++size) {
+      hashes(word, size, consumer);
+    }
+  }
+
+  /**
+   * Returns the hashes of the shingles of <code>size</code> characters.
+   *
+   * @param word the word that is transformed to shingles.
+   * @param size the size of the shingles.
+   * @return The stream of hashes.
+   * @see #hashes(CharSequence, int, LongConsumer)
+   * @since 2.6
+   */
+  public static LongStream hashes(final CharSequence word, final int size) {
+    final LongStream.Builder builder = LongStream.builder();
+
+    hashes(word, size, builder);
+
+    return builder.build();
+  }
+
+  /**
+   * Returns the hashes of the shingles with a size from <code>minSize</code> to <code>maxSize
+   * </code>.
+   *
+   * @param word the word that is transformed to shingles.
+   * @param minSize the minimum length of the shingles.
+   * @param maxSize the maximum length of the shingles. It is limited by the length of the word.
+   * @return The stream of hashes.
+   * @see #hashes(CharSequence, int, LongConsumer)
+   * @since 2.6
+   */
+  public static LongStream hashes(final CharSequence word, final int minSize, final int maxSize) {
+    final LongStream.Builder builder = LongStream.builder();
+
+    hashes(word, minSize, maxSize, builder);
+
+    return builder.build();
+  }
+
+  /** The finalizer of MurmurHash3, which spreads every input bit over the whole result. */
+  static long mix(final long value) {
+    long h = value;
+
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+
+    return h;
+  }
+
+  private static long mix(final long hash, final int size) {
+    return mix(hash ^ size * 0x9E3779B97F4A7C15L);
+  }
 }
@@ -0,0 +1,52 @@
+package net.pincette.util;
+
+import static java.lang.Math.max;
+
+/**
+ * Builds a <code>short</code> array with amortised geometric growth.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class ShortArrayBuilder extends AbstractArrayBuilder<short[], ShortArrayBuilder> {
+  public ShortArrayBuilder() {
+    this(16);
+  }
+
+  public ShortArrayBuilder(final int capacity) {
+    super(new short[max(capacity, 0)]);
+  }
+
+  public ShortArrayBuilder append(final short s) {
+    final int position = extend();
+
+    array()[position] = s;
+
+    return this;
+  }
+
+  public short get(final int index) {
+    checkElementIndex(index);
+
+    return array()[index];
+  }
+
+  public ShortArrayBuilder insert(final int position, final short s) {
+    openGap(position);
+    array()[position] = s;
+
+    return this;
+  }
+
+  @Override
+  protected short[] newArray(final int length) {
+    return new short[length];
+  }
+
+  public ShortArrayBuilder set(final int index, final short s) {
+    checkElementIndex(index);
+    array()[index] = s;
+
+    return this;
+  }
+}
@@ -2,7 +2,8 @@ package net.pincette.util;
 
 import static java.lang.Integer.max;
 import static java.lang.Long.MAX_VALUE;
-import static java.util.Collections.emptyList;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
 import static java.util.Spliterator.IMMUTABLE;
 import static java.util.Spliterator.NONNULL;
@@ -11,8 +12,8 @@ import static java.util.Spliterators.spliteratorUnknownSize;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.concurrent.ForkJoinPool.commonPool;
+import static java.util.stream.Collector.Characteristics.UNORDERED;
 import static net.pincette.util.Collections.map;
-import static net.pincette.util.Collections.shiftDown;
 import static net.pincette.util.Pair.pair;
 
 import java.util.Arrays;
@@ -30,10 +31,16 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.Stream.Builder;
 import java.util.stream.StreamSupport;
+import net.pincette.function.SideEffect;
 
 /**
  * Some stream API untilities.
@@ -425,7 +432,8 @@ public class StreamUtil {
 
   /**
    * Returns a stream of sliding windows over <code>stream</code>. Only windows of exactly <code>
-   * windowSize</code> are returned.
+   * windowSize</code> are returned. The windows are unmodifiable views over a block that is shared
+   * by consecutive windows, so emitting a window doesn't copy it.
    *
    * @param stream the given stream.
    * @param windowSize the size of the returned windows.
@@ -437,26 +445,59 @@ public class StreamUtil {
     return stream(
         new Iterator<>() {
           final Iterator<T> iterator = stream.iterator();
-          List<T> window;
+          final int keep = max(windowSize - 1, 0);
+          Object[] block;
+          int end;
+          boolean ready;
 
-          @Override
-          public boolean hasNext() {
-            window = window == null ? chunk(iterator, windowSize) : newWindow();
+          private boolean advance() {
+            if (block == null) {
+              block = new Object[max(2 * windowSize, 1)];
+
+              while (end < windowSize && iterator.hasNext()) {
+                block[end++] = iterator.next();
+              }
+
+              return end == windowSize;
+            }
+
+            if (!iterator.hasNext()) {
+              return false;
+            }
+
+            if (end == block.length) {
+              // The emitted windows keep the old block.
+              final Object[] next = new Object[block.length];
 
-            return window.size() == windowSize;
+              System.arraycopy(block, end - keep, next, 0, keep);
+              block = next;
+              end = keep;
+            }
+
+            block[end++] = iterator.next();
+
+            return true;
           }
 
-          private List<T> newWindow() {
-            return iterator.hasNext() ? shiftDown(window, 1, iterator.next()) : emptyList();
+          @Override
+          public boolean hasNext() {
+            if (!ready) {
+              ready = advance();
+            }
+
+            return ready;
           }
 
           @Override
+          @SuppressWarnings("unchecked")
           public List<T> next() {
-            if (window == null || window.size() < windowSize) {
+            if (!hasNext()) {
               throw new NoSuchElementException();
             }
 
-            return window;
+            ready = false;
+
+            return unmodifiableList((List<T>) asList(block).subList(end - windowSize, end));
           }
         });
   }
@@ -622,6 +663,112 @@ public class StreamUtil {
         });
   }
 
+  /**
+   * Collects the stream into a list without boxing the values.
+   *
+   * @param stream the given stream.
+   * @return The new list.
+   * @since 2.6
+   */
+  public static IntArrayList toIntArrayList(final IntStream stream) {
+    return stream.collect(IntArrayList::new, IntArrayList::add, IntArrayList::addAll);
+  }
+
+  /**
+   * Returns a collector that puts the <code>int</code> values of the elements in a list.
+   *
+   * @param value the function that extracts the value from an element.
+   * @param <T> the element type.
+   * @return The collector.
+   * @since 2.6
+   */
+  public static <T> Collector<T, IntArrayList, IntArrayList> toIntArrayList(
+      final ToIntFunction<T> value) {
+    return Collector.of(
+        IntArrayList::new, (l, e) -> l.add(value.applyAsInt(e)), IntArrayList::addAll);
+  }
+
+  /**
+   * Collects the stream into a set without boxing the values.
+   *
+   * @param stream the given stream.
+   * @return The new set.
+   * @since 2.6
+   */
+  public static IntHashSet toIntHashSet(final IntStream stream) {
+    return stream.collect(IntHashSet::new, IntHashSet::add, (s1, s2) -> s2.forEach(s1::add));
+  }
+
+  /**
+   * Returns a collector that puts the <code>int</code> values of the elements in a set.
+   *
+   * @param value the function that extracts the value from an element.
+   * @param <T> the element type.
+   * @return The collector.
+   * @since 2.6
+   */
+  public static <T> Collector<T, IntHashSet, IntHashSet> toIntHashSet(
+      final ToIntFunction<T> value) {
+    return Collector.of(
+        IntHashSet::new,
+        (s, e) -> s.add(value.applyAsInt(e)),
+        (s1, s2) -> SideEffect.<IntHashSet>run(() -> s2.forEach(s1::add)).andThenGet(() -> s1),
+        UNORDERED);
+  }
+
+  /**
+   * Collects the stream into a list without boxing the values.
+   *
+   * @param stream the given stream.
+   * @return The new list.
+   * @since 2.6
+   */
+  public static LongArrayList toLongArrayList(final LongStream stream) {
+    return stream.collect(LongArrayList::new, LongArrayList::add, LongArrayList::addAll);
+  }
+
+  /**
+   * Returns a collector that puts the <code>long</code> values of the elements in a list.
+   *
+   * @param value the function that extracts the value from an element.
+   * @param <T> the element type.
+   * @return The collector.
+   * @since 2.6
+   */
+  public static <T> Collector<T, LongArrayList, LongArrayList> toLongArrayList(
+      final ToLongFunction<T> value) {
+    return Collector.of(
+        LongArrayList::new, (l, e) -> l.add(value.applyAsLong(e)), LongArrayList::addAll);
+  }
+
+  /**
+   * Collects the stream into a set without boxing the values.
+   *
+   * @param stream the given stream.
+   * @return The new set.
+   * @since 2.6
+   */
+  public static LongHashSet toLongHashSet(final LongStream stream) {
+    return stream.collect(LongHashSet::new, LongHashSet::add, (s1, s2) -> s2.forEach(s1::add));
+  }
+
+  /**
+   * Returns a collector that puts the <code>long</code> values of the elements in a set.
+   *
+   * @param value the function that extracts the value from an element.
+   * @param <T> the element type.
+   * @return The collector.
+   * @since 2.6
+   */
+  public static <T> Collector<T, LongHashSet, LongHashSet> toLongHashSet(
+      final ToLongFunction<T> value) {
+    return Collector.of(
+        LongHashSet::new,
+        (s, e) -> s.add(value.applyAsLong(e)),
+        (s1, s2) -> SideEffect.<LongHashSet>run(() -> s2.forEach(s1::add)).andThenGet(() -> s1),
+        UNORDERED);
+  }
+
   /**
    * Creates a map from a stream of value pairs.
    *
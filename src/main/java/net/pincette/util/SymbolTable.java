@@ -0,0 +1,59 @@
+package net.pincette.util;
+
+import static net.pincette.util.ShadowString.shadow;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe table that maps character sequences to one canonical <code>String</code> per
+ * content. Looking up a {@link ShadowString} doesn't copy its characters, so a substring is only
+ * created the first time some content is seen. This saves heap and hashing work when the same keys
+ * are produced over and over, for example by {@link Util#segments(String, String)}. The method
+ * reference <code>symbols::intern</code> can be used as the key function of {@link
+ * Collections#expand(Map, java.util.regex.Pattern, java.util.function.Function)}.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ */
+public class SymbolTable {
+  private final Map<ShadowString, String> symbols = new ConcurrentHashMap<>();
+
+  /** Creates an empty table. */
+  public SymbolTable() {}
+
+  public void clear() {
+    symbols.clear();
+  }
+
+  /**
+   * Returns the canonical string for the content of <code>s</code>.
+   *
+   * @param s the given character sequence.
+   * @return The canonical string.
+   */
+  public String intern(final CharSequence s) {
+    return switch (s) {
+      case ShadowString ss -> lookup(ss);
+      case String str -> lookup(shadow(str));
+      default -> lookup(shadow(s.toString()));
+    };
+  }
+
+  private String lookup(final ShadowString s) {
+    final String existing = symbols.get(s);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    final String str = s.toString();
+    final String previous = symbols.putIfAbsent(shadow(str), str);
+
+    return previous != null ? previous : str;
+  }
+
+  public int size() {
+    return symbols.size();
+  }
+}
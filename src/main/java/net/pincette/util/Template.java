@@ -0,0 +1,202 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A string with parameters of the form <code>${name}</code> or <code>${name:default}</code>,
+ * which is parsed only once. It can then be rendered many times. Names and default values consist
+ * of the characters <code>a-z</code>, <code>A-Z</code>, <code>0-9</code>, "_" and "-". Anything
+ * else is literal text. When a parameter has no value its default value is used, or the empty
+ * string if there is none.
+ *
+ * @author Werner Donné
+ * @since 2.6
+ * @see Util#replaceParameters(String, Map, char, char, Set)
+ */
+public class Template {
+  private final int literalLength;
+  private final Part[] parts;
+
+  private Template(final Part[] parts) {
+    this.parts = parts;
+    literalLength = literalLength(parts);
+  }
+
+  /**
+   * Parses a template with parameters delimited by "${" and "}".
+   *
+   * @param s the template string.
+   * @return The template.
+   */
+  public static Template compile(final String s) {
+    return compile(s, '{', '}', Set.of());
+  }
+
+  /**
+   * Parses a template with parameters delimited by $<code>leftBrace</code> and <code>rightBrace
+   * </code>. The parameters with a name in <code>leave</code> are kept as literal text.
+   *
+   * @param s the template string.
+   * @param leftBrace the left delimiter.
+   * @param rightBrace the right delimiter.
+   * @param leave the names that are excluded from replacement.
+   * @return The template.
+   */
+  public static Template compile(
+      final String s, final char leftBrace, final char rightBrace, final Set<String> leave) {
+    final List<Part> parts = new ArrayList<>();
+    int literalStart = 0;
+    int i = 0;
+
+    while ((i = s.indexOf('$', i)) != -1) {
+      final int nameEnd = i + 1 < s.length() && s.charAt(i + 1) == leftBrace ? scan(s, i + 2) : -1;
+
+      if (nameEnd > i + 2) {
+        final int defaultEnd =
+            nameEnd < s.length() && s.charAt(nameEnd) == ':' ? scan(s, nameEnd + 1) : nameEnd;
+
+        if (defaultEnd != nameEnd + 1
+            && defaultEnd < s.length()
+            && s.charAt(defaultEnd) == rightBrace) {
+          final String name = s.substring(i + 2, nameEnd);
+
+          if (!leave.contains(name)) {
+            addLiteral(parts, s, literalStart, i);
+            parts.add(
+                new Part(
+                    null,
+                    null,
+                    name,
+                    defaultEnd > nameEnd ? s.substring(nameEnd + 1, defaultEnd) : ""));
+            literalStart = defaultEnd + 1;
+          }
+
+          i = defaultEnd + 1;
+          continue;
+        }
+      }
+
+      ++i;
+    }
+
+    addLiteral(parts, s, literalStart, s.length());
+
+    return new Template(parts.toArray(Part[]::new));
+  }
+
+  private static void addLiteral(
+      final List<Part> parts, final String s, final int start, final int end) {
+    if (start < end) {
+      final String literal = s.substring(start, end);
+
+      parts.add(new Part(literal, literal.getBytes(UTF_8), null, null));
+    }
+  }
+
+  private static boolean isNameChar(final char c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '_'
+        || c == '-';
+  }
+
+  private static int literalLength(final Part[] parts) {
+    int result = 0;
+
+    for (final Part part : parts) {
+      if (part.literal != null) {
+        result += part.literal.length();
+      }
+    }
+
+    return result;
+  }
+
+  private static int scan(final String s, final int start) {
+    int i = start;
+
+    while (i < s.length() && isNameChar(s.charAt(i))) {
+      ++i;
+    }
+
+    return i;
+  }
+
+  private static String value(final Part part, final Function<String, String> parameters) {
+    final String value = parameters.apply(part.name);
+
+    return value != null ? value : part.defaultValue;
+  }
+
+  /**
+   * Renders the template with the values in <code>parameters</code>.
+   *
+   * @param parameters the parameter values.
+   * @return The rendered string.
+   */
+  public String render(final Map<String, String> parameters) {
+    return render(parameters::get);
+  }
+
+  /**
+   * Renders the template with the values produced by <code>parameters</code>, which may return
+   * <code>null</code>.
+   *
+   * @param parameters the function that returns the value for a parameter name.
+   * @return The rendered string.
+   */
+  public String render(final Function<String, String> parameters) {
+    final StringBuilder builder = new StringBuilder(literalLength + 16 * parts.length);
+
+    for (final Part part : parts) {
+      builder.append(part.literal != null ? part.literal : value(part, parameters));
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Renders the template into <code>out</code>, which can also be a <code>Writer</code>.
+   *
+   * @param parameters the function that returns the value for a parameter name.
+   * @param out the destination.
+   * @return The destination.
+   * @param <T> the destination type.
+   * @throws IOException when the destination can't be written.
+   */
+  public <T extends Appendable> T render(final Function<String, String> parameters, final T out)
+      throws IOException {
+    for (final Part part : parts) {
+      out.append(part.literal != null ? part.literal : value(part, parameters));
+    }
+
+    return out;
+  }
+
+  /**
+   * Renders the template into <code>out</code> in UTF-8. The literal text is encoded only once.
+   *
+   * @param parameters the function that returns the value for a parameter name.
+   * @param out the destination buffer.
+   * @return The destination buffer.
+   * @throws java.nio.BufferOverflowException when the buffer is too small.
+   */
+  public ByteBuffer render(final Function<String, String> parameters, final ByteBuffer out) {
+    for (final Part part : parts) {
+      out.put(part.bytes != null ? part.bytes : value(part, parameters).getBytes(UTF_8));
+    }
+
+    return out;
+  }
+
+  private record Part(String literal, byte[] bytes, String name, String defaultValue) {}
+}
@@ -7,19 +7,15 @@ import static java.lang.Math.max;
 import static java.lang.String.join;
 import static java.lang.System.getProperty;
 import static java.lang.Thread.sleep;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Duration.ofMillis;
 import static java.time.Instant.now;
 import static java.util.Arrays.fill;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
-import static java.util.UUID.fromString;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.logging.LogManager.getLogManager;
 import static java.util.logging.Logger.getLogger;
 import static java.util.regex.Pattern.compile;
-import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Stream.concat;
 import static net.pincette.util.Pair.pair;
 import static net.pincette.util.ScheduledCompletionStage.composeAsyncAfter;
@@ -34,21 +30,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.net.URI;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -67,16 +59,14 @@ import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 import net.pincette.function.BiFunctionWithException;
 import net.pincette.function.ConsumerWithException;
 import net.pincette.function.FunctionWithException;
 import net.pincette.function.RunnableWithException;
 import net.pincette.function.SideEffect;
 import net.pincette.function.SupplierWithException;
-import net.pincette.io.EscapedUnicodeFilterReader;
-import net.pincette.io.StreamConnector;
+import net.pincette.io.Compression;
+import net.pincette.io.ParallelGzipOutputStream;
 
 /**
  * General purpose utility functions.
@@ -86,9 +76,7 @@ import net.pincette.io.StreamConnector;
 public class Util {
   private static final Pattern EMAIL =
       compile("[\\w.%+\\-]+@[a-zA-Z\\d\\-]+(\\.[a-zA-Z\\d\\-]+)*\\.[a-zA-Z]{2,}");
-  private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
-  private static final Pattern INSTANT =
-      compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|\\+00:00)");
+  private static final int PARALLEL_COMPRESSION_THRESHOLD = 0x400000;
   private static final Object VOID = new Object();
 
   private Util() {}
@@ -122,15 +110,19 @@ public class Util {
    */
   public static Stream<String> allPaths(final String path, final String delimiter) {
     final String leading = path.startsWith(delimiter) ? delimiter : "";
-    final CharSequence[] segments = getSegments(path, delimiter).toArray(CharSequence[]::new);
+    final String[] segments = split(path, delimiter);
+    final String full = leading + String.join(delimiter, segments);
+    final int[] ends = new int[segments.length];
+    int end = leading.length() - delimiter.length();
+
+    for (int i = 0; i < segments.length; ++i) {
+      end += delimiter.length() + segments[i].length();
+      ends[i] = end;
+    }
 
     return concat(
-        takeWhile(0, i -> i + 1, i -> i < segments.length)
-            .map(
-                i ->
-                    leading
-                        + Arrays.stream(segments, 0, segments.length - i)
-                            .collect(joining(delimiter))),
+        takeWhile(segments.length - 1, i -> i - 1, i -> i >= 0)
+            .map(i -> full.substring(0, ends[i])),
         !leading.isEmpty() ? Stream.of(delimiter) : Stream.empty());
   }
 
@@ -156,23 +148,24 @@ public class Util {
    * @since 1.8.1
    */
   public static String canonicalPath(final String path, final String delimiter) {
-    return delimiter
-        + String.join(
-            delimiter,
-            segments(path, delimiter)
-                .filter(s -> !s.isEmpty() && !s.equals("."))
-                .reduce(
-                    new LinkedList<>(),
-                    (l, s) -> {
-                      if (s.equals("..")) {
-                        l.removeLast();
-                      } else {
-                        l.add(s);
-                      }
-
-                      return l;
-                    },
-                    (l1, l2) -> l1));
+    final StringBuilder builder = new StringBuilder(path.length() + delimiter.length());
+    final SegmentCursor cursor = new SegmentCursor(path, delimiter);
+    final IntArrayList starts = new IntArrayList();
+
+    while (cursor.next()) {
+      if (cursor.contentEquals("..")) {
+        if (starts.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+
+        builder.setLength(starts.removeAt(starts.size() - 1));
+      } else if (!cursor.isEmpty() && !cursor.contentEquals(".")) {
+        starts.add(builder.length());
+        builder.append(delimiter).append(path, cursor.start(), cursor.end());
+      }
+    }
+
+    return builder.isEmpty() ? delimiter : builder.toString();
   }
 
   public static <T, R, V> Function<T, R> compose(
@@ -181,16 +174,25 @@ public class Util {
   }
 
   /**
-   * Compresses using GZIP.
+   * Compresses using GZIP. Large arrays are compressed in blocks on several threads. See {@link
+   * Compression} for other codecs and buffers.
    *
    * @param b the array to be compressed.
    * @return The compressed array.
    */
   public static byte[] compress(final byte[] b) {
-    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (b.length < PARALLEL_COMPRESSION_THRESHOLD) {
+      return Compression.gzip().compress(b);
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(b.length / 4);
 
     tryToDoRethrow(
-        () -> StreamConnector.copy(new ByteArrayInputStream(b), new GZIPOutputStream(out)));
+        () -> {
+          try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(out)) {
+            gzip.write(b);
+          }
+        });
 
     return out.toByteArray();
   }
@@ -241,12 +243,7 @@ public class Util {
    * @return The decompressed array.
    */
   public static byte[] decompress(final byte[] b) {
-    final ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-    tryToDoRethrow(
-        () -> StreamConnector.copy(new GZIPInputStream(new ByteArrayInputStream(b)), out));
-
-    return out.toByteArray();
+    return Compression.gzip().decompress(b);
   }
 
   /**
@@ -489,7 +486,7 @@ public class Util {
   }
 
   private static int getPosition(final String expr) {
-    return isInteger(expr) ? Integer.parseInt(expr) : -1;
+    return Parsers.parseIntOrDefault(expr, -1);
   }
 
   /**
@@ -501,7 +498,7 @@ public class Util {
    * @return The segment stream.
    */
   public static Stream<String> getSegments(final String path, final String delimiter) {
-    return toNonEmptyStrings(segments(path, delimiter));
+    return Arrays.stream(split(path, delimiter));
   }
 
   /**
@@ -513,7 +510,7 @@ public class Util {
    * @return The segment stream.
    */
   public static Stream<String> getSegments(final String path, final Pattern delimiter) {
-    return toNonEmptyStrings(segments(path, delimiter));
+    return Arrays.stream(split(path, delimiter));
   }
 
   public static String getStackTrace(final Throwable e) {
@@ -596,11 +593,11 @@ public class Util {
   }
 
   public static boolean isDate(final String s) {
-    return tryToGetSilent(() -> LocalDate.parse(s)).isPresent();
+    return Parsers.isDate(s);
   }
 
   public static boolean isDouble(final String s) {
-    return tryToGetSilent(() -> Double.parseDouble(s)).isPresent();
+    return Parsers.isDouble(s);
   }
 
   public static boolean isEmail(String s) {
@@ -608,27 +605,27 @@ public class Util {
   }
 
   public static boolean isFloat(final String s) {
-    return tryToGetSilent(() -> Float.parseFloat(s)).isPresent();
+    return Parsers.isDouble(s);
   }
 
   public static boolean isInstant(final String s) {
-    return INSTANT.matcher(!s.endsWith("Z") && !s.endsWith("+00:00") ? (s + "Z") : s).matches();
+    return Parsers.isInstant(s);
   }
 
   public static boolean isInteger(final String s) {
-    return tryToGetSilent(() -> Integer.parseInt(s)).isPresent();
+    return Parsers.isInteger(s);
   }
 
   public static boolean isLong(final String s) {
-    return tryToGetSilent(() -> Long.parseLong(s)).isPresent();
+    return Parsers.isLong(s);
   }
 
   public static boolean isUUID(final String s) {
-    return tryToGetSilent(() -> fromString(s)).isPresent();
+    return Parsers.isUUID(s);
   }
 
   public static boolean isUri(final String s) {
-    return tryToGetSilent(() -> new URI(s)).map(URI::isAbsolute).orElse(false);
+    return Parsers.isUri(s);
   }
 
   private static Properties loadLogging(final InputStream in) {
@@ -639,12 +636,18 @@ public class Util {
     return properties;
   }
 
+  /**
+   * Reads properties in the format of {@link #readLineConfig(InputStream)}. Only lines with exactly
+   * one "=" that is not at the end are kept. The stream is closed.
+   *
+   * @param in the supplier of the stream.
+   * @return The properties, which are empty when the stream can't be read.
+   * @see LineConfig#properties(Path)
+   */
   public static Map<String, String> loadProperties(final Supplier<InputStream> in) {
-    return tryToGet(() -> readLineConfig(in.get()))
-        .orElse(Stream.empty())
-        .map(line -> line.split("="))
-        .filter(line -> line.length == 2)
-        .collect(toMap(line -> line[0], line -> line[1]));
+    return tryToGet(() -> readAllLineConfig(in.get()))
+        .map(LineConfig::properties)
+        .orElseGet(HashMap::new);
   }
 
   public static <T> Iterator<T> matcherIterator(
@@ -825,17 +828,39 @@ public class Util {
     }
   }
 
+  private static List<String> readAllLineConfig(final InputStream in) throws IOException {
+    try (in) {
+      return LineConfig.lines(ByteBuffer.wrap(in.readAllBytes()));
+    }
+  }
+
+  /**
+   * Reads the stream completely in UTF-8 and parses it with {@link LineConfig}. Java-style Unicode
+   * escapes are decoded.
+   *
+   * @param in the given stream, which is not closed.
+   * @return The generated lines.
+   */
   public static Stream<String> readLineConfig(final InputStream in) {
-    return readLineConfig(
-        new BufferedReader(new EscapedUnicodeFilterReader(new InputStreamReader(in, UTF_8))));
+    return tryToGetRethrow(() -> LineConfig.lines(ByteBuffer.wrap(in.readAllBytes())))
+        .orElseGet(List::of)
+        .stream();
   }
 
   public static Stream<String> readLineConfig(final BufferedReader in) {
     return readLineConfig(in.lines());
   }
 
+  /**
+   * Reads the file in UTF-8 by mapping it in memory and parses it with {@link LineConfig}.
+   * Java-style Unicode escapes are decoded.
+   *
+   * @param path the file.
+   * @return The generated lines.
+   * @throws IOException when the file can't be read.
+   */
   public static Stream<String> readLineConfig(final Path path) throws IOException {
-    return readLineConfig(Files.lines(path, UTF_8));
+    return LineConfig.lines(path).stream();
   }
 
   /**
@@ -952,7 +977,8 @@ public class Util {
    * Replaces all occurrences of strings delimited by $<code>leftBrace</code> and <code>rightBrace
    * </code>. When the name in such a string is in <code>leave</code> no replacement is done. When
    * the name contains a colon then the actual name precedes that colon. The string after the colon
-   * is the default value for the replacement.
+   * is the default value for the replacement. Use a {@link Template} when the same string is
+   * rendered many times.
    *
    * @param s the string that is to transformed.
    * @param parameters the parameters used for the replacement.
@@ -967,22 +993,7 @@ public class Util {
       final char leftBrace,
       final char rightBrace,
       final Set<String> leave) {
-    final Function<Matcher, String> tryDefault =
-        matcher -> matcher.groupCount() == 3 ? matcher.group(3) : "";
-
-    return replaceAll(
-        s,
-        compile(
-            "\\$"
-                + (leftBrace == '{' || leftBrace == '(' ? "\\" : "")
-                + leftBrace
-                + "([a-zA-Z0-9_\\-]+)(:([a-zA-Z0-9_\\-]+))?"
-                + rightBrace),
-        matcher ->
-            leave.contains(matcher.group(1))
-                ? s.substring(matcher.start(), matcher.end())
-                : ofNullable(parameters.get(matcher.group(1)))
-                    .orElseGet(() -> tryDefault.apply(matcher)));
+    return Template.compile(s, leftBrace, rightBrace, leave).render(parameters);
   }
 
   public static Optional<File> resolveFile(final File baseDirectory, final String path) {
@@ -1055,23 +1066,19 @@ public class Util {
    * @since 2.0.4
    */
   public static Iterator<CharSequence> segmentIterator(final String s, final String delimiter) {
+    final SegmentCursor cursor = new SegmentCursor(s, delimiter);
+
     return new Iterator<>() {
-      int lastEnd = -1;
       CharSequence segment;
 
       @Override
       public boolean hasNext() {
-        final int index = s.indexOf(delimiter, lastEnd == -1 ? 0 : lastEnd);
-
-        if (index != -1) {
-          segment = shadow(s, lastEnd == -1 ? 0 : lastEnd, index);
-          lastEnd = index + delimiter.length();
-        } else if (lastEnd < s.length()) {
-          segment = lastEnd == -1 ? s : shadow(s, lastEnd, s.length());
-          lastEnd = s.length();
-        } else {
-          segment = null;
-        }
+        segment =
+            cursor.next()
+                ? (cursor.start() == 0 && cursor.end() == s.length()
+                    ? s
+                    : shadow(s, cursor.start(), cursor.end()))
+                : null;
 
         return segment != null;
       }
@@ -1140,7 +1147,16 @@ public class Util {
    * @since 2.1.1
    */
   public static String[] split(final String s, final String delimiter) {
-    return getSegments(s, delimiter).toArray(String[]::new);
+    final SegmentCursor cursor = new SegmentCursor(s, delimiter);
+    final ArrayBuilder<String> result = new ArrayBuilder<>(String[]::new, 8);
+
+    while (cursor.next()) {
+      if (!cursor.isEmpty()) {
+        result.append(cursor.toString());
+      }
+    }
+
+    return result.build();
   }
 
   /**
@@ -1153,7 +1169,23 @@ public class Util {
    * @since 2.1.1
    */
   public static String[] split(final String s, final Pattern delimiter) {
-    return getSegments(s, delimiter).toArray(String[]::new);
+    final Matcher matcher = delimiter.matcher(s);
+    final ArrayBuilder<String> result = new ArrayBuilder<>(String[]::new, 8);
+    int start = 0;
+
+    while (matcher.find()) {
+      if (matcher.start() > start) {
+        result.append(s.substring(start, matcher.start()));
+      }
+
+      start = matcher.end();
+    }
+
+    if (start < s.length()) {
+      result.append(start == 0 ? s : s.substring(start));
+    }
+
+    return result.build();
   }
 
   /**
@@ -1204,21 +1236,15 @@ public class Util {
     return fn -> tryToGetRethrow(() -> fn.apply(value)).orElse(null);
   }
 
+  /**
+   * Encodes <code>bytes</code> in upper case hex.
+   *
+   * @param bytes the given bytes.
+   * @return The hex text.
+   * @see Codecs
+   */
   public static char[] toHex(final byte[] bytes) {
-    final char[] result = new char[bytes.length * 2];
-
-    for (int i = 0; i < bytes.length; ++i) {
-      final int v = bytes[i] & 0xFF;
-
-      result[i * 2] = HEX_ARRAY[v >>> 4];
-      result[i * 2 + 1] = HEX_ARRAY[v & 0x0F];
-    }
-
-    return result;
-  }
-
-  private static Stream<String> toNonEmptyStrings(final Stream<CharSequence> stream) {
-    return stream.filter(cs -> !cs.isEmpty()).map(CharSequence::toString);
+    return Codecs.encodeHex(bytes);
   }
 
   public static boolean tryToDo(final RunnableWithException run) {
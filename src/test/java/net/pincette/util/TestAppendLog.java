@@ -0,0 +1,122 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.readAllLines;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static net.pincette.io.PathUtil.delete;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import net.pincette.io.AppendLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestAppendLog {
+  private static final int RECORDS = 5000;
+  private static final int THREADS = 8;
+
+  @Test
+  @DisplayName("append log closed")
+  void closed() throws IOException {
+    final Path directory = createTempDirectory("append");
+    final AppendLog log = new AppendLog(directory.resolve("log").toFile(), 2, 1000000);
+
+    log.close();
+
+    final CompletableFuture<Void> future = log.append("a\n".getBytes(US_ASCII));
+
+    assertThrows(CompletionException.class, future::join);
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("append log close interrupted")
+  void closeInterrupted() throws IOException {
+    final Path directory = createTempDirectory("append");
+    final AppendLog log = new AppendLog(directory.resolve("log").toFile(), 2, 1000000);
+
+    log.append("a\n".getBytes(US_ASCII)).join();
+    Thread.currentThread().interrupt();
+    log.close();
+    assertTrue(Thread.interrupted());
+    assertThrows(CompletionException.class, () -> log.append("b\n".getBytes(US_ASCII)).join());
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("append log pending")
+  void pending() throws IOException {
+    final Path directory = createTempDirectory("append");
+    final Path file = directory.resolve("log");
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+    try (AppendLog log = new AppendLog(file.toFile(), 2, 1000000, null, true, 1)) {
+      for (int i = 0; i < 100; ++i) {
+        futures.add(log.append((i + "\n").getBytes(US_ASCII)));
+      }
+
+      Thread.currentThread().interrupt();
+      futures.add(log.append("a\n".getBytes(US_ASCII)));
+      assertTrue(Thread.interrupted());
+      assertThrows(CompletionException.class, () -> futures.get(100).join());
+      futures.remove(100);
+      allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    assertEquals(100, readAllLines(file, US_ASCII).size());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AppendLog(file.toFile(), 2, 1000000, null, false, 0));
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("append log threads")
+  void threads() throws IOException, InterruptedException {
+    final Path directory = createTempDirectory("append");
+    final Path file = directory.resolve("log");
+    final Queue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+    final List<Thread> threads = new ArrayList<>();
+
+    try (AppendLog log = new AppendLog(file.toFile(), 2, 10000000, null, true)) {
+      for (int i = 0; i < THREADS; ++i) {
+        final int thread = i;
+
+        threads.add(
+            Thread.ofPlatform()
+                .start(
+                    () -> {
+                      for (int j = 0; j < RECORDS; ++j) {
+                        futures.add(log.append((thread + ":" + j + "\n").getBytes(US_ASCII)));
+                      }
+                    }));
+      }
+
+      for (Thread thread : threads) {
+        thread.join();
+      }
+
+      allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+      assertEquals(THREADS * RECORDS, futures.size());
+      assertTrue(futures.stream().allMatch(f -> f.isDone() && !f.isCompletedExceptionally()));
+    }
+
+    final Set<String> lines = new HashSet<>(readAllLines(file, US_ASCII));
+
+    assertEquals(THREADS * RECORDS, lines.size());
+    assertTrue(lines.contains("3:4999"));
+    delete(directory);
+  }
+}
@@ -0,0 +1,70 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static net.pincette.util.Array.hasPrefix;
+import static net.pincette.util.Array.hasSuffix;
+import static net.pincette.util.Array.indexOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestArray {
+  private static void indexOfBytes(final String s, final String slice) {
+    assertEquals(s.indexOf(slice), indexOf(s.getBytes(US_ASCII), slice.getBytes(US_ASCII)));
+  }
+
+  private static void indexOfChars(final String s, final String slice) {
+    assertEquals(s.indexOf(slice), indexOf(s.toCharArray(), slice.toCharArray()));
+  }
+
+  @Test
+  @DisplayName("hasPrefix and hasSuffix")
+  void prefixSuffix() {
+    assertTrue(hasPrefix(new byte[] {1, 2, 3}, new byte[] {1, 2}));
+    assertFalse(hasPrefix(new byte[] {1, 2, 3}, new byte[] {2}));
+    assertFalse(hasPrefix(new byte[] {1}, new byte[] {1, 2}));
+    assertTrue(hasSuffix(new byte[] {1, 2, 3}, new byte[] {2, 3}));
+    assertFalse(hasSuffix(new byte[] {1}, new byte[] {0, 1}));
+    assertTrue(hasPrefix(new Object[] {null, "a"}, new Object[] {null}));
+    assertTrue(hasSuffix(new char[] {'a', 'b'}, new char[0]));
+  }
+
+  @Test
+  @DisplayName("indexOf slice")
+  void indexOfSlice() {
+    final String text = "abracadabra, the quick brown fox jumps over the lazy dog\r\n\r\n";
+
+    for (final String slice :
+        new String[] {"", "a", "abra", "cad", "dog", "\r\n\r\n", "the lazy", "fox!", "zzz", text}) {
+      indexOfBytes(text, slice);
+      indexOfChars(text, slice);
+    }
+
+    assertEquals(7, indexOf("abracadabra".getBytes(US_ASCII), "abra".getBytes(US_ASCII), 1));
+    assertEquals(-1, indexOf(new char[] {'š', 'a'}, new char[] {'a', 'a'}));
+    assertEquals(1, indexOf(new char[] {'a', 'š', 'a'}, new char[] {'š', 'a'}));
+  }
+
+  @Test
+  @DisplayName("slices")
+  void slices() {
+    final byte[] bytes = "0123456789".getBytes(US_ASCII);
+    final ByteSlice slice = ByteSlice.of(bytes).drop(2).truncate(5);
+
+    assertEquals(ByteSlice.of("23456".getBytes(US_ASCII)), slice);
+    assertTrue(slice.hasPrefix("23".getBytes(US_ASCII)));
+    assertTrue(slice.hasSuffix("56".getBytes(US_ASCII)));
+    assertEquals(2, slice.indexOf("45".getBytes(US_ASCII)));
+    assertEquals(-1, slice.indexOf("78".getBytes(US_ASCII)));
+    assertEquals(-1, slice.indexOf((byte) '1'));
+    assertEquals("65432", new String(slice.reverse().toArray(), US_ASCII));
+    assertEquals("0165432789", new String(bytes, US_ASCII));
+    assertEquals("bcd", CharSlice.of("abcde".toCharArray()).slice(1, 4).toString());
+    assertEquals(
+        ArraySlice.of(new String[] {"c", "b"}),
+        ArraySlice.of(new String[] {"a", "b", "c", "d"}).slice(1, 3).reverse());
+  }
+}
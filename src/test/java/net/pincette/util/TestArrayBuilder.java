@@ -0,0 +1,50 @@
+package net.pincette.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestArrayBuilder {
+  @Test
+  @DisplayName("ArrayBuilder")
+  void arrayBuilder() {
+    assertArrayEquals(
+        new String[] {"a", "x", "y", "d"},
+        new ArrayBuilder<>(String[]::new, 0)
+            .append("a")
+            .appendAll(new String[] {"b", "c", "d"})
+            .remove(1, 2)
+            .insertAll(1, new String[] {"x", "y"})
+            .insert(0, "z")
+            .remove(0, 1)
+            .build());
+  }
+
+  @Test
+  @DisplayName("ByteArrayBuilder")
+  void byteArrayBuilder() {
+    final ByteArrayBuilder builder = new ByteArrayBuilder(1);
+
+    for (int i = 0; i < 1000; ++i) {
+      builder.append((byte) i);
+    }
+
+    builder.insert(0, (byte) -1).remove(1, 10).truncate(100);
+    assertEquals(100, builder.size());
+    assertEquals(-1, builder.get(0));
+    assertEquals(10, builder.get(1));
+    assertEquals(100, builder.toByteBuffer().remaining());
+    assertEquals(100, builder.build().length);
+    assertEquals(0, builder.size());
+  }
+
+  @Test
+  @DisplayName("IntArrayBuilder")
+  void intArrayBuilder() {
+    assertArrayEquals(
+        new int[] {0, 1, 2, 3},
+        new IntArrayBuilder().append(3).insertAll(0, new int[] {0, 1}).insert(2, 2).build());
+  }
+}
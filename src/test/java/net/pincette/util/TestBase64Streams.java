@@ -0,0 +1,117 @@
+package net.pincette.util;
+
+import static java.lang.Math.min;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+import net.pincette.io.Base64InputStream;
+import net.pincette.io.Base64OutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestBase64Streams {
+  private static final int[] SIZES = {
+    0, 1, 2, 3, 55, 56, 57, 58, 112, 113, 114, 1000, 10000, 100000
+  };
+
+  private static byte[] data(final int size) {
+    final byte[] result = new byte[size];
+
+    new Random(size).nextBytes(result);
+
+    return result;
+  }
+
+  private static byte[] decode(final String encoded) throws IOException {
+    try (InputStream in = new Base64InputStream(new ByteArrayInputStream(encoded.getBytes()))) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static String encode(
+      final byte[] data, final boolean oneLine, final boolean url, final boolean padding)
+      throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try (Base64OutputStream out = new Base64OutputStream(bytes, oneLine, true, url, padding)) {
+      for (int i = 0; i < data.length; ) {
+        final int length = min(data.length - i, i % 7 == 0 ? 1 : 333);
+
+        if (length == 1) {
+          out.write(data[i]);
+        } else {
+          out.write(data, i, length);
+        }
+
+        i += length;
+      }
+    }
+
+    return bytes.toString(US_ASCII);
+  }
+
+  @Test
+  @DisplayName("Base64 output")
+  void output() throws IOException {
+    for (int size : SIZES) {
+      final byte[] data = data(size);
+      final String mime = Base64.getMimeEncoder().encodeToString(data);
+
+      // A line of 76 characters always ends with CRLF, also when padding completes it.
+      assertEquals(
+          size > 0 && (size % 57 == 0 || size % 57 >= 55) ? mime + "\r\n" : mime,
+          encode(data, false, false, true));
+      assertEquals(Base64.getEncoder().encodeToString(data), encode(data, true, false, true));
+      assertEquals(
+          Base64.getUrlEncoder().withoutPadding().encodeToString(data),
+          encode(data, true, true, false));
+    }
+  }
+
+  @Test
+  @DisplayName("Base64 output closed")
+  void outputClosed() throws IOException {
+    final Base64OutputStream out = new Base64OutputStream(new ByteArrayOutputStream());
+
+    out.close();
+    assertThrows(IOException.class, () -> out.write(0));
+    assertThrows(IOException.class, () -> out.write(new byte[10], 0, 10));
+  }
+
+  @Test
+  @DisplayName("Base64 input")
+  void input() throws IOException {
+    for (int size : SIZES) {
+      final byte[] data = data(size);
+      final String mime = Base64.getMimeEncoder().encodeToString(data);
+
+      assertArrayEquals(data, decode(mime));
+      assertArrayEquals(data, decode(Base64.getEncoder().withoutPadding().encodeToString(data)));
+      assertArrayEquals(data, decode(mime.replace("A", " A\t").replace("\r\n", "\n\u00e9")));
+
+      try (InputStream in = new Base64InputStream(new ByteArrayInputStream(mime.getBytes()))) {
+        final int skip = size / 3;
+
+        assertEquals(skip, in.skip(skip));
+
+        for (int i = skip; i < size; ++i) {
+          assertEquals(data[i] & 0xff, in.read());
+        }
+
+        assertEquals(-1, in.read());
+        assertEquals(0, in.skip(10));
+        assertEquals(0, in.available());
+      }
+    }
+
+    assertArrayEquals(new byte[0], decode("\n".repeat(1000000)));
+  }
+}
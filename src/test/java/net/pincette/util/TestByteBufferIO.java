@@ -2,15 +2,20 @@ package net.pincette.util;
 
 import static java.nio.ByteBuffer.allocate;
 import static java.nio.channels.Channels.newChannel;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
 import static net.pincette.io.StreamConnector.copy;
 import static net.pincette.util.Util.tryToDoRethrow;
 import static net.pincette.util.Util.tryToGetRethrow;
 import static net.pincette.util.Util.tryToGetWithRethrow;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import net.pincette.io.ByteBufferInputStream;
@@ -61,4 +66,67 @@ class TestByteBufferIO {
 
     assertArrayEquals(getArray(in), getArray(out));
   }
+
+  @Test
+  @DisplayName("ByteBuffer channels")
+  void channels() throws IOException {
+    final List<ByteBuffer> in = read(TestByteBufferIO.class.getResourceAsStream("/file.pdf"));
+    final byte[] all = getArray(in);
+    final List<ByteBuffer> out = new ArrayList<>();
+
+    in.forEach(b -> b.position(0));
+
+    try (ByteBufferInputStream stream = new ByteBufferInputStream(in)) {
+      final ByteBuffer first = allocate(10000);
+
+      assertEquals(all.length, stream.available());
+      assertEquals(10000, stream.channel().read(first));
+      assertEquals(5000, stream.skip(5000));
+      assertEquals(all[15000] & 0xff, stream.read());
+      assertArrayEquals(copyOfRange(all, 15001, 25001), stream.readNBytes(10000));
+      assertEquals(
+          all.length - 25001,
+          stream.writeTo(new ByteBufferOutputStream(() -> newBuffer(out)).channel()));
+      assertEquals(-1, stream.channel().read(allocate(10)));
+      assertArrayEquals(copyOf(all, 10000), first.array());
+    }
+
+    out.forEach(ByteBuffer::flip);
+    assertArrayEquals(copyOfRange(all, 25001, all.length), getArray(out));
+  }
+
+  @Test
+  @DisplayName("ByteBuffer full channel")
+  void fullChannel() throws IOException {
+    final ByteBuffer target = allocate(100);
+    final WritableByteChannel channel =
+        new WritableByteChannel() {
+          @Override
+          public void close() {}
+
+          @Override
+          public boolean isOpen() {
+            return true;
+          }
+
+          @Override
+          public int write(final ByteBuffer src) {
+            final int length = Math.min(src.remaining(), target.remaining());
+
+            target.put(src.slice(src.position(), length));
+            src.position(src.position() + length);
+
+            return length;
+          }
+        };
+
+    try (ByteBufferInputStream stream =
+        new ByteBufferInputStream(List.of(allocate(60), allocate(60)))) {
+      assertEquals(100, stream.writeTo(channel));
+      assertEquals(20, stream.available());
+      target.clear();
+      assertEquals(20, stream.writeTo(channel));
+      assertEquals(0, stream.available());
+    }
+  }
 }
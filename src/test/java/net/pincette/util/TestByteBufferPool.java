@@ -0,0 +1,167 @@
+package net.pincette.util;
+
+import static net.pincette.util.Util.tryToDoRethrow;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.pincette.io.ByteBufferInputStream;
+import net.pincette.io.ByteBufferOutputStream;
+import net.pincette.io.ByteBufferPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestByteBufferPool {
+  @Test
+  @DisplayName("pool acquire")
+  void acquire() {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x100000, false);
+    final ByteBuffer small = pool.acquire(10);
+    final ByteBuffer medium = pool.acquire(1000);
+    final ByteBuffer large = pool.acquire(0x1000000);
+
+    assertEquals(512, small.capacity());
+    assertEquals(10, small.limit());
+    assertEquals(1024, medium.capacity());
+    assertEquals(0x1000000, large.capacity());
+    assertTrue(pool.acquire(100).hasArray());
+    assertTrue(new ByteBufferPool(true, 0x100000, false).acquire(100).isDirect());
+  }
+
+  private static void acquireAndRelease(final ByteBufferPool pool, final int count) {
+    final List<ByteBuffer> buffers = new ArrayList<>();
+
+    for (int i = 0; i < count; ++i) {
+      buffers.add(pool.acquire(0x1000));
+    }
+
+    buffers.forEach(pool::release);
+  }
+
+  @Test
+  @DisplayName("pool bound")
+  void bound() {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x60000, false);
+    final List<ByteBuffer> buffers = new ArrayList<>();
+
+    // Buffers of more than 64KB are not kept by threads.
+    for (int i = 0; i < 4; ++i) {
+      buffers.add(pool.acquire(0x20000));
+    }
+
+    buffers.forEach(pool::release);
+    assertEquals(0x60000, pool.metrics().pooledBytes());
+    pool.release(ByteBuffer.allocate(1000));
+    pool.release(ByteBuffer.allocateDirect(0x20000));
+    assertEquals(0x60000, pool.metrics().pooledBytes());
+  }
+
+  @Test
+  @DisplayName("pool thread churn")
+  void churn() throws InterruptedException {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x4000, false);
+
+    for (int i = 0; i < 16; ++i) {
+      Thread.ofPlatform().start(() -> acquireAndRelease(pool, 1)).join();
+    }
+
+    assertTrue(pool.metrics().pooledBytes() <= 0x4000);
+    Thread.ofVirtual().start(() -> acquireAndRelease(pool, 5)).join();
+    assertEquals(0x4000, pool.metrics().pooledBytes());
+  }
+
+  @Test
+  @DisplayName("pool double release")
+  void doubleRelease() {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x100000, false);
+    final ByteBufferPool tracking = new ByteBufferPool(false, 0x100000, true);
+    final ByteBuffer buffer = pool.acquire(100);
+    final ByteBuffer large = tracking.acquire(0x100000);
+
+    pool.release(buffer);
+    assertThrows(IllegalStateException.class, () -> pool.release(buffer));
+    tracking.release(large);
+    assertThrows(IllegalStateException.class, () -> tracking.release(large));
+    assertThrows(IllegalStateException.class, () -> tracking.release(ByteBuffer.allocate(512)));
+  }
+
+  @Test
+  @DisplayName("pool leaks")
+  void leaks() throws InterruptedException {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x100000, true);
+    final Logger logger = Logger.getLogger(ByteBufferPool.class.getName());
+    final Level level = logger.getLevel();
+
+    logger.setLevel(Level.OFF);
+
+    try {
+      pool.release(pool.acquire(100));
+      pool.acquire(100);
+
+      for (int i = 0; i < 50 && pool.metrics().leaks() == 0; ++i) {
+        System.gc();
+        Thread.sleep(20);
+      }
+
+      assertEquals(1, pool.metrics().leaks());
+    } finally {
+      logger.setLevel(level);
+    }
+  }
+
+  @Test
+  @DisplayName("pool reuse")
+  void reuse() {
+    final ByteBufferPool pool = new ByteBufferPool(false, 0x100000, false);
+    final ByteBuffer buffer = pool.acquire(1000);
+
+    buffer.put((byte) 1);
+    pool.release(buffer);
+    assertEquals(1024, pool.metrics().pooledBytes()); // The thread keeps it.
+
+    final ByteBuffer again = pool.acquire(600);
+
+    assertSame(buffer, again);
+    assertEquals(0, again.position());
+    assertEquals(600, again.limit());
+    pool.release(again);
+
+    final ByteBufferPool.Metrics metrics = pool.metrics();
+
+    assertEquals(2, metrics.acquired());
+    assertEquals(2, metrics.released());
+    assertEquals(1, metrics.allocated());
+    assertEquals(1, metrics.hits());
+    pool.release(ByteBuffer.allocate(1024).asReadOnlyBuffer());
+    assertEquals(1024, pool.metrics().pooledBytes());
+  }
+
+  @Test
+  @DisplayName("pool supplier")
+  void supplier() {
+    final byte[] bytes = new byte[0x5000];
+    final List<ByteBuffer> buffers = new ArrayList<>();
+    final ByteBufferPool pool = ByteBufferPool.heap();
+
+    new Random(7).nextBytes(bytes);
+
+    final ByteBufferOutputStream out = new ByteBufferOutputStream(buffers);
+
+    tryToDoRethrow(() -> out.write(bytes));
+    assertEquals(3, buffers.size());
+    buffers.forEach(ByteBuffer::flip);
+
+    final byte[] result = new ByteBufferInputStream(buffers).readAllBytes();
+
+    assertArrayEquals(bytes, result);
+    buffers.forEach(pool::release);
+  }
+}
@@ -0,0 +1,70 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static net.pincette.util.Codecs.decodeBase64;
+import static net.pincette.util.Codecs.decodeHex;
+import static net.pincette.util.Codecs.encodeBase64;
+import static net.pincette.util.Codecs.encodeBase64String;
+import static net.pincette.util.Codecs.encodeHex;
+import static net.pincette.util.Codecs.encodeHexString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestCodecs {
+  private static byte[] bytes(final int length) {
+    final byte[] result = new byte[length];
+
+    new Random(length).nextBytes(result);
+
+    return result;
+  }
+
+  @Test
+  @DisplayName("Base64")
+  void base64() {
+    for (int i = 0; i < 20; ++i) {
+      final byte[] b = bytes(i);
+
+      assertEquals(Base64.getEncoder().encodeToString(b), encodeBase64String(b, false));
+      assertEquals(Base64.getUrlEncoder().encodeToString(b), encodeBase64String(b, true));
+      assertArrayEquals(b, decodeBase64(encodeBase64String(b, true)));
+      assertArrayEquals(b, decodeBase64(Base64.getEncoder().withoutPadding().encodeToString(b)));
+    }
+
+    final ByteBuffer encoded = ByteBuffer.allocate(8);
+    final ByteBuffer decoded = ByteBuffer.allocateDirect(5);
+
+    encodeBase64(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5}), encoded, false);
+    assertEquals("AQIDBAU=", new String(encoded.array(), US_ASCII));
+    decodeBase64(encoded.flip(), decoded);
+    assertEquals(0, decoded.remaining());
+    assertThrows(IllegalArgumentException.class, () -> decodeBase64("AQI*"));
+    assertThrows(IllegalArgumentException.class, () -> decodeBase64("AQIDB"));
+  }
+
+  @Test
+  @DisplayName("hex")
+  void hex() {
+    final byte[] b = bytes(100);
+    final CharBuffer chars = CharBuffer.allocate(200);
+    final ByteBuffer back = ByteBuffer.allocate(100);
+
+    assertEquals(HexFormat.of().withUpperCase().formatHex(b), new String(encodeHex(b)));
+    assertEquals(HexFormat.of().formatHex(b), encodeHexString(b, true));
+    assertArrayEquals(b, decodeHex(encodeHexString(b, false)));
+    encodeHex(ByteBuffer.wrap(b), chars, true);
+    decodeHex(chars.flip(), back);
+    assertArrayEquals(b, back.array());
+    assertThrows(IllegalArgumentException.class, () -> decodeHex("abc"));
+    assertThrows(IllegalArgumentException.class, () -> decodeHex("0g"));
+  }
+}
@@ -0,0 +1,133 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.zip.Deflater.BEST_SPEED;
+import static java.util.zip.Deflater.FILTERED;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import net.pincette.io.Compression;
+import net.pincette.io.CompressionCodec;
+import net.pincette.io.DeflateCodec;
+import net.pincette.io.ParallelGzipOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestCompression {
+  private static final byte[] DATA =
+      "The quick brown fox jumps over the lazy dog. ".repeat(1000).getBytes(UTF_8);
+
+  private static byte[] gunzip(final byte[] b) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(b))) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static byte[] gzip(final byte[] b) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(b);
+    }
+
+    return out.toByteArray();
+  }
+
+  @Test
+  @DisplayName("deflate")
+  void deflate() {
+    final CompressionCodec codec = new DeflateCodec(BEST_SPEED, FILTERED, false);
+    final CompressionCodec raw = Compression.codec("raw-deflate").orElseThrow();
+    final ByteBuffer in = ByteBuffer.allocateDirect(DATA.length).put(DATA).flip();
+    final ByteBuffer compressed = ByteBuffer.allocateDirect(codec.maxCompressedLength(DATA.length));
+    final ByteBuffer out = ByteBuffer.allocateDirect(DATA.length);
+
+    codec.compress(in, compressed);
+    codec.decompress(compressed.flip(), out);
+    assertEquals(DATA.length, out.position());
+    assertEquals(ByteBuffer.wrap(DATA), out.flip());
+    assertArrayEquals(DATA, raw.decompress(raw.compress(DATA)));
+    assertArrayEquals(new byte[0], codec.decompress(codec.compress(new byte[0])));
+  }
+
+  @Test
+  @DisplayName("gzip hostile size")
+  void gzipHostileSize() {
+    final CompressionCodec codec = Compression.gzip();
+    final byte[] compressed = codec.compress(new byte[0]);
+
+    compressed[compressed.length - 4] = (byte) 0xff;
+    compressed[compressed.length - 3] = (byte) 0xff;
+    compressed[compressed.length - 2] = (byte) 0xff;
+    compressed[compressed.length - 1] = (byte) 0x7f;
+    assertThrows(RuntimeException.class, () -> Util.decompress(compressed));
+    assertThrows(RuntimeException.class, () -> new DeflateCodec().decompress(compressed));
+  }
+
+  @Test
+  @DisplayName("parallel gzip")
+  void parallelGzip() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ByteArrayOutputStream empty = new ByteArrayOutputStream();
+
+    try (ParallelGzipOutputStream gzip =
+        new ParallelGzipOutputStream(out, BEST_SPEED, 1000, ForkJoinPool.commonPool())) {
+      gzip.write(DATA, 0, 10);
+      gzip.write(DATA[10]);
+      gzip.write(DATA, 11, DATA.length - 11);
+    }
+
+    new ParallelGzipOutputStream(empty).close();
+    assertArrayEquals(DATA, gunzip(out.toByteArray()));
+    assertArrayEquals(new byte[0], gunzip(empty.toByteArray()));
+  }
+
+  @Test
+  @DisplayName("parallel gzip closed")
+  void parallelGzipClosed() throws IOException {
+    final ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(new ByteArrayOutputStream());
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    gzip.close();
+    assertThrows(IOException.class, () -> gzip.write(DATA, 0, 10));
+    assertThrows(IOException.class, () -> gzip.write(DATA[0]));
+    assertThrows(IOException.class, gzip::flush);
+    assertThrows(IndexOutOfBoundsException.class, () -> gzip.write(DATA, DATA.length, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ParallelGzipOutputStream(new ByteArrayOutputStream(), BEST_SPEED, 0, pool));
+  }
+
+  @Test
+  @DisplayName("gzip")
+  void gzip() throws IOException {
+    final CompressionCodec codec = Compression.gzip();
+    final byte[] compressed = codec.compress(DATA);
+    final ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+
+    assertArrayEquals(DATA, gunzip(compressed));
+    assertArrayEquals(DATA, codec.decompress(gzip(DATA)));
+    assertArrayEquals(DATA, Util.decompress(Util.compress(DATA)));
+    assertEquals(DATA.length, codec.decompressedLengthHint(ByteBuffer.wrap(compressed)));
+    concatenated.write(gzip(DATA));
+    concatenated.write(compressed);
+    assertEquals(2 * DATA.length, codec.decompress(concatenated.toByteArray()).length);
+    concatenated.write(new byte[10]);
+    assertEquals(2 * DATA.length, codec.decompress(concatenated.toByteArray()).length);
+    concatenated.write("garbage".getBytes(UTF_8));
+    assertArrayEquals(
+        gunzip(concatenated.toByteArray()), Util.decompress(concatenated.toByteArray()));
+    compressed[compressed.length - 5] ^= 1;
+    assertThrows(RuntimeException.class, () -> codec.decompress(compressed));
+    assertTrue(Compression.codec("deflate").isPresent());
+  }
+}
@@ -0,0 +1,167 @@
+package net.pincette.util;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.list;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.size;
+import static java.nio.file.Files.write;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Arrays.fill;
+import static net.pincette.io.PathUtil.delete;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import net.pincette.io.FileRotateOutputStream;
+import net.pincette.io.StreamConnector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestFileRotateOutputStream {
+  private static byte[] block(final int value) {
+    final byte[] result = new byte[100];
+
+    fill(result, (byte) value);
+
+    return result;
+  }
+
+  private static long count(final Path directory) throws IOException {
+    try (Stream<Path> files = list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static byte[] gunzip(final Path path) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    StreamConnector.copy(new GZIPInputStream(new FileInputStream(path.toFile())), out);
+
+    return out.toByteArray();
+  }
+
+  @Test
+  @DisplayName("rotate closed")
+  void closed() throws IOException {
+    final Path directory = createTempDirectory("rotate");
+    final FileRotateOutputStream out =
+        new FileRotateOutputStream(directory.resolve("log").toFile(), 2, 250);
+
+    out.write(block(0));
+    out.close();
+    assertThrows(IOException.class, () -> out.write(block(1)));
+    assertEquals(1, count(directory));
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("rotate failure")
+  void failure() throws IOException {
+    final Path directory = createTempDirectory("rotate");
+    final Path file = directory.resolve("log");
+
+    try (FileRotateOutputStream out = new FileRotateOutputStream(file.toFile(), 2, 250)) {
+      out.write(block(0));
+      out.write(block(1));
+      Files.delete(file);
+      assertThrows(IOException.class, () -> out.write(block(2)));
+      out.write(block(3));
+    }
+
+    assertArrayEquals(block(3), readAllBytes(file));
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("rotate leftovers")
+  void leftovers() throws IOException {
+    final Path directory = createTempDirectory("rotate");
+    final Path file = directory.resolve("log");
+
+    write(directory.resolve("log.rotated-123"), block(9));
+
+    try (FileRotateOutputStream out = new FileRotateOutputStream(file.toFile(), 2, 250)) {
+      out.write(block(0));
+    }
+
+    assertArrayEquals(block(9), gunzip(directory.resolve("log.1.gz")));
+    assertEquals(2, count(directory));
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("rotate leftovers with glob characters")
+  void leftoversGlob() throws IOException {
+    final Path directory = createTempDirectory("rotate");
+    final Path file = directory.resolve("log[1]");
+
+    write(directory.resolve("log[1].rotated-123"), block(9));
+    write(directory.resolve("log1.rotated-123"), block(8));
+
+    try (FileRotateOutputStream out = new FileRotateOutputStream(file.toFile(), 2, 250)) {
+      out.write(block(0));
+    }
+
+    assertArrayEquals(block(9), gunzip(directory.resolve("log[1].1.gz")));
+    assertArrayEquals(block(8), readAllBytes(directory.resolve("log1.rotated-123")));
+    assertEquals(3, count(directory));
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("rotate on size")
+  void rotateOnSize() throws IOException {
+    final Path directory = createTempDirectory("rotate");
+    final Path file = directory.resolve("log");
+
+    try (FileRotateOutputStream out = new FileRotateOutputStream(file.toFile(), 2, 250)) {
+      for (int i = 0; i < 8; ++i) {
+        out.write(block(i));
+      }
+    }
+
+    assertEquals(200, size(file));
+    assertArrayEquals(block(7), copyOfRange(readAllBytes(file), 100, 200));
+    assertEquals(3, count(directory));
+
+    final byte[] first = gunzip(directory.resolve("log.1.gz"));
+    final byte[] second = gunzip(directory.resolve("log.2.gz"));
+
+    assertEquals(200, first.length);
+    assertEquals(200, second.length);
+    assertArrayEquals(block(4), copyOf(first, 100));
+    assertArrayEquals(block(2), copyOf(second, 100));
+    assertFalse(directory.resolve("log.3.gz").toFile().exists());
+    delete(directory);
+  }
+
+  @Test
+  @DisplayName("rotate on time")
+  void rotateOnTime() throws IOException, InterruptedException {
+    final Path directory = createTempDirectory("rotate");
+    final Path file = directory.resolve("log");
+
+    try (FileRotateOutputStream out =
+        new FileRotateOutputStream(file.toFile(), 3, 100000, Duration.ofMillis(50))) {
+      out.write(block(1));
+      out.write(block(2));
+      Thread.sleep(100);
+      out.write(block(3));
+    }
+
+    assertArrayEquals(block(3), readAllBytes(file));
+    assertEquals(200, gunzip(directory.resolve("log.1.gz")).length);
+    assertEquals(2, count(directory));
+    delete(directory);
+  }
+}
@@ -0,0 +1,86 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.writeString;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static net.pincette.util.Collections.list;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestLineConfig {
+  private static final String CONFIG =
+      "#comment\nline1\r\nline2 \\\n  # only a comment\ncontinue\rline3 \\u0041\\u00e9 \\\r\n"
+          + "continue\nline4#comment\n\\u0023escaped comment\nlast \\";
+
+  @Test
+  @DisplayName("lines")
+  void lines() {
+    assertEquals(
+        list("line1", "line2 continue", "line3 Aé continue", "line4"),
+        LineConfig.lines(ByteBuffer.wrap(CONFIG.getBytes(UTF_8))));
+    assertEquals(
+        list("line1", "line2 continue", "line3 Aé continue", "line4"),
+        Util.readLineConfig(new ByteArrayInputStream(CONFIG.getBytes(UTF_8))).toList());
+    assertEquals(
+        Map.of("a", "1", "", "3"),
+        Util.loadProperties(
+            () -> new ByteArrayInputStream("a=1\nb=2=3\nc=\n=3\nd".getBytes(UTF_8))));
+  }
+
+  @Test
+  @DisplayName("watch")
+  void watch() throws IOException, InterruptedException {
+    final Path file = createTempFile("config", ".properties");
+
+    writeString(file, "a=1\n");
+
+    try (ConfigWatcher<Map<String, String>> watcher = ConfigWatcher.properties(file)) {
+      assertEquals(Map.of("a", "1"), watcher.get());
+      writeString(file, "a=2\nb=3\n");
+
+      for (int i = 0; i < 200 && !watcher.get().containsKey("b"); ++i) {
+        Thread.sleep(50);
+      }
+
+      assertEquals(Map.of("a", "2", "b", "3"), watcher.get());
+    } finally {
+      delete(file);
+    }
+  }
+
+  @Test
+  @DisplayName("watch partial write")
+  void watchPartialWrite() throws IOException, InterruptedException {
+    final Path file = createTempFile("config", ".properties");
+    final List<Map<String, String>> snapshots = new CopyOnWriteArrayList<>();
+
+    writeString(file, "a=1\n");
+
+    try (ConfigWatcher<Map<String, String>> watcher = ConfigWatcher.properties(file)) {
+      watcher.onChange(snapshots::add);
+      writeString(file, "a=2\n");
+      Thread.sleep(20);
+      writeString(file, "b=3\n", APPEND);
+
+      for (int i = 0; i < 200 && !watcher.get().containsKey("b"); ++i) {
+        Thread.sleep(50);
+      }
+
+      assertEquals(Map.of("a", "2", "b", "3"), watcher.get());
+      assertEquals(list(Map.of("a", "2", "b", "3")), snapshots);
+    } finally {
+      delete(file);
+    }
+  }
+}
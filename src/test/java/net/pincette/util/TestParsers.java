@@ -0,0 +1,85 @@
+package net.pincette.util;
+
+import static net.pincette.util.Parsers.isDate;
+import static net.pincette.util.Parsers.isDouble;
+import static net.pincette.util.Parsers.isInteger;
+import static net.pincette.util.Parsers.isLong;
+import static net.pincette.util.Parsers.isUUID;
+import static net.pincette.util.Parsers.isUri;
+import static net.pincette.util.Parsers.parseInstant;
+import static net.pincette.util.Parsers.parseIntOrDefault;
+import static net.pincette.util.Parsers.parseLongOrDefault;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestParsers {
+  @Test
+  @DisplayName("dates and instants")
+  void dates() {
+    assertTrue(isDate("2024-02-29"));
+    assertFalse(isDate("2023-02-29"));
+    assertFalse(isDate("2023-04-31"));
+    assertTrue(isDate("2023-12-31"));
+    assertFalse(isDate("2023-1-31"));
+    assertTrue(isDate("+12023-12-31"));
+    assertEquals(
+        Optional.of(Instant.parse("2021-01-24T12:11:42.090045Z")),
+        parseInstant("2021-01-24T12:11:42.090045Z"));
+    assertEquals(
+        Optional.of(Instant.parse("2021-01-24T12:11:42Z")), parseInstant("2021-01-24T12:11:42"));
+    assertEquals(
+        Optional.of(Instant.parse("2021-01-24T12:11:42Z")),
+        parseInstant("2021-01-24T12:11:42+00:00"));
+    assertFalse(parseInstant("2021-13-24T12:11:42Z").isPresent());
+    assertFalse(parseInstant("2021-01-24T12:11:42.Z").isPresent());
+  }
+
+  @Test
+  @DisplayName("numbers")
+  void numbers() {
+    for (final String s :
+        new String[] {
+          "0", "-0", "+1", "2147483647", "-2147483648", "2147483648", "-", "+", "", "1a", "٣"
+        }) {
+      assertEquals(Util.tryToGetSilent(() -> Integer.parseInt(s)).isPresent(), isInteger(s), s);
+    }
+
+    for (final String s :
+        new String[] {"9223372036854775807", "-9223372036854775808", "9223372036854775808"}) {
+      assertEquals(Util.tryToGetSilent(() -> Long.parseLong(s)).isPresent(), isLong(s), s);
+    }
+
+    for (final String s :
+        new String[] {
+          "1", "1.", ".5", ".", "1e5", "1e", "-1.5E-3d", " 2f ", "NaN", "-Infinity", "Inf", "0x1p3",
+          "0x.8P-1", "0x1", "0x", "1ff", "e1"
+        }) {
+      assertEquals(Util.tryToGetSilent(() -> Double.parseDouble(s)).isPresent(), isDouble(s), s);
+    }
+
+    assertEquals(-2147483648, parseIntOrDefault("-2147483648", 0));
+    assertEquals(7, parseIntOrDefault("x", 7));
+    assertEquals(Long.MIN_VALUE, parseLongOrDefault("-9223372036854775808", 0));
+    assertEquals(12, parseLongOrDefault("+12", 0));
+  }
+
+  @Test
+  @DisplayName("UUIDs and URIs")
+  void uuidUri() {
+    assertTrue(isUUID("123e4567-e89b-12d3-a456-426614174000"));
+    assertFalse(isUUID("123e4567-e89b-12d3-a456-42661417400g"));
+    assertTrue(isUUID("1-2-3-4-5"));
+    assertTrue(isUUID("0000000-00000000-00000-00000-0000000"));
+    assertFalse(isUUID("not a uuid"));
+    assertTrue(isUri("https://example.com/a?b=c"));
+    assertTrue(isUri("urn:isbn:0451450523"));
+    assertFalse(isUri("/relative/path"));
+    assertFalse(isUri("1http://x"));
+  }
+}
@@ -0,0 +1,51 @@
+package net.pincette.util;
+
+import static net.pincette.util.Collections.list;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestPathTrie {
+  @Test
+  @DisplayName("intern")
+  void intern() {
+    final PathTrie trie = new PathTrie("/");
+    final PathTrie.Node node = trie.intern("/a/b/c");
+
+    assertSame(node, trie.intern("a//b/./c/"));
+    assertSame(node, trie.intern("/a/x/../b/c"));
+    assertSame(node.path(), trie.canonicalPath("/a/b/c/"));
+    assertEquals("/a/b/c", node.path());
+    assertEquals("/a/b", trie.getParent("/a/b/c"));
+    assertEquals("/", trie.getParent("/a"));
+    assertEquals("/", trie.canonicalPath("/a/.."));
+    assertEquals(3, node.depth());
+    assertEquals(
+        list("/a/b/c", "/a/b", "/a", "/"), node.ancestors().map(PathTrie.Node::path).toList());
+    assertTrue(trie.root().isRoot());
+  }
+
+  @Test
+  @DisplayName("find")
+  void find() {
+    final PathTrie trie = new PathTrie(".");
+
+    trie.intern("a.b.c");
+    trie.intern("a.b.d");
+    trie.intern("a.e");
+
+    final int size = trie.size();
+
+    assertFalse(trie.find("a.x").isPresent());
+    assertEquals(size, trie.size());
+    assertEquals("b", trie.find("a.b").map(PathTrie.Node::name).orElse(null));
+    assertEquals(
+        list(".a.b", ".a.b.c", ".a.b.d"),
+        trie.descendants("a.b").map(PathTrie.Node::path).sorted().toList());
+    assertEquals(0, trie.descendants("x").count());
+  }
+}
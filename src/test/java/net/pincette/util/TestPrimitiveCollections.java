@@ -0,0 +1,110 @@
+package net.pincette.util;
+
+import static net.pincette.util.StreamUtil.toIntArrayList;
+import static net.pincette.util.StreamUtil.toLongHashSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestPrimitiveCollections {
+  @Test
+  @DisplayName("Int2ObjectHashMap")
+  void int2ObjectHashMap() {
+    final Random random = new Random(0);
+    final Int2ObjectHashMap<String> map = new Int2ObjectHashMap<>(4);
+    final Map<Integer, String> reference = new HashMap<>();
+
+    for (int i = 0; i < 100000; ++i) {
+      final int key = random.nextInt(1000) - 500;
+
+      if (random.nextBoolean()) {
+        assertEquals(reference.put(key, "v" + i), map.put(key, "v" + i));
+      } else {
+        assertEquals(reference.remove(key), map.remove(key));
+      }
+    }
+
+    assertEquals(reference.size(), map.size());
+    reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+    assertEquals(reference.keySet(), new HashSet<>(map.keys().boxed().toList()));
+    assertNull(map.computeIfAbsent(1000, k -> null));
+    assertFalse(map.containsKey(1000));
+    assertEquals("a", map.computeIfAbsent(1000, k -> "a"));
+    assertEquals("a", map.computeIfAbsent(1000, k -> "b"));
+    assertEquals(reference.size() + 1, map.size());
+  }
+
+  @Test
+  @DisplayName("IntArrayList")
+  void intArrayList() {
+    final IntArrayList list = new IntArrayList(1);
+
+    IntStream.range(0, 100).forEach(list::add);
+    assertEquals(100, list.size());
+    assertEquals(42, list.get(42));
+    assertEquals(0, list.removeAt(0));
+    list.add(0, -1);
+    assertEquals(-1, list.get(0));
+    assertEquals(IntStream.range(1, 100).sum() - 1, list.stream().sum());
+    assertEquals(IntArrayList.of(1, 2, 3), toIntArrayList(IntStream.of(1, 2, 3)));
+  }
+
+  @Test
+  @DisplayName("IntHashSet")
+  void intHashSet() {
+    final Random random = new Random(0);
+    final IntHashSet set = new IntHashSet(4);
+    final Set<Integer> reference = new HashSet<>();
+
+    for (int i = 0; i < 100000; ++i) {
+      final int value = random.nextInt(1000) - 500;
+
+      if (random.nextBoolean()) {
+        assertEquals(reference.add(value), set.add(value));
+      } else {
+        assertEquals(reference.remove(value), set.remove(value));
+      }
+    }
+
+    assertEquals(reference.size(), set.size());
+    reference.forEach(v -> assertTrue(set.contains(v)));
+    assertEquals(reference, new HashSet<>(set.stream().boxed().toList()));
+  }
+
+  @Test
+  @DisplayName("Long2ObjectHashMap")
+  void long2ObjectHashMap() {
+    final Random random = new Random(0);
+    final Long2ObjectHashMap<String> map = new Long2ObjectHashMap<>(4);
+    final Map<Long, String> reference = new HashMap<>();
+
+    for (int i = 0; i < 100000; ++i) {
+      final long key = random.nextInt(1000) - 500L;
+
+      if (random.nextBoolean()) {
+        assertEquals(reference.put(key, "v" + i), map.put(key, "v" + i));
+      } else {
+        assertEquals(reference.remove(key), map.remove(key));
+      }
+    }
+
+    assertEquals(reference.size(), map.size());
+    reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+    assertNull(map.get(1000));
+    assertFalse(map.containsKey(1000));
+    assertNull(map.computeIfAbsent(1000, k -> null));
+    assertEquals(reference.size(), map.size());
+    assertEquals(LongHashSet.of(0, 1, 2), toLongHashSet(LongStream.of(2, 1, 0, 1)));
+  }
+}
@@ -0,0 +1,69 @@
+package net.pincette.util;
+
+import static net.pincette.util.Collections.list;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestRingList {
+  @Test
+  @DisplayName("add")
+  void add() {
+    final RingList<Integer> ring = new RingList<>(3);
+
+    ring.add(0);
+    ring.add(1);
+    assertEquals(list(0, 1), ring);
+    ring.add(2);
+    ring.add(3);
+    assertEquals(list(1, 2, 3), ring);
+    ring.addFirst(4);
+    assertEquals(list(4, 1, 2), ring);
+    assertEquals(4, ring.removeFirst());
+    assertEquals(2, ring.removeLast());
+    assertEquals(list(1), ring);
+  }
+
+  @Test
+  @DisplayName("empty")
+  void empty() {
+    final RingList<Integer> ring = new RingList<>(list());
+
+    assertTrue(ring.isEmpty());
+    ring.add(0);
+    ring.add(1);
+    assertEquals(list(1), ring);
+  }
+
+  @Test
+  @DisplayName("remove")
+  void remove() {
+    final RingList<Integer> ring = new RingList<>(4, list(0, 1, 2, 3, 4, 5));
+
+    assertEquals(list(2, 3, 4, 5), ring);
+    assertEquals(3, ring.remove(1));
+    assertEquals(list(2, 4, 5), ring);
+    assertThrows(IndexOutOfBoundsException.class, () -> ring.remove(3));
+  }
+
+  @Test
+  @DisplayName("shiftDown")
+  void shiftDown() {
+    assertEquals(list(1, 2), new RingList<>(list(0, 1)).shiftDown(1, 2));
+    assertEquals(list(0, 1), new RingList<>(list(0, 1)).shiftDown(0, 2));
+    assertEquals(list(2, 2), new RingList<>(list(0, 1)).shiftDown(10, 2));
+    assertEquals(list(2, 3, 4), new RingList<>(list(0, 1, 2)).shiftDown(1, 3).shiftDown(1, 4));
+  }
+
+  @Test
+  @DisplayName("shiftUp")
+  void shiftUp() {
+    assertEquals(list(2, 0), new RingList<>(list(0, 1)).shiftUp(1, 2));
+    assertEquals(list(0, 1), new RingList<>(list(0, 1)).shiftUp(0, 2));
+    assertEquals(list(2, 2), new RingList<>(list(0, 1)).shiftUp(10, 2));
+    assertEquals(list(4, 3, 0), new RingList<>(list(0, 1, 2)).shiftUp(1, 3).shiftUp(1, 4));
+  }
+}
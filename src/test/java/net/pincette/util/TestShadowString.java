@@ -0,0 +1,56 @@
+package net.pincette.util;
+
+import static net.pincette.util.ShadowString.shadow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestShadowString {
+  @Test
+  @DisplayName("equals and hashCode")
+  void equalsHashCode() {
+    final String s = "abc.def.abc";
+
+    assertEquals(shadow(s, 0, 3), shadow(s, 8, 11));
+    assertEquals(shadow(s, 0, 3), "abc");
+    assertEquals(shadow(s, 0, 3), new StringBuilder("abc"));
+    assertEquals("abc".hashCode(), shadow(s, 8, 11).hashCode());
+    assertEquals(0, shadow(s, 3, 3).hashCode());
+    assertNotEquals(shadow(s, 0, 3), shadow(s, 4, 7));
+    assertNotEquals(shadow(s, 0, 3), null);
+    assertTrue(shadow(s, 0, 3).compareTo(shadow(s, 4, 7)) < 0);
+    assertEquals(0, shadow(s, 0, 3).compareTo(shadow("abc")));
+  }
+
+  @Test
+  @DisplayName("search")
+  void search() {
+    final ShadowString s = shadow("abc.def.abc", 4, 11);
+
+    assertEquals(3, s.indexOf('.'));
+    assertEquals(-1, s.indexOf('x'));
+    assertEquals(4, s.indexOf("abc"));
+    assertEquals(-1, s.indexOf("abc.d"));
+    assertTrue(s.startsWith("def"));
+    assertFalse(s.startsWith("abc"));
+    assertTrue(s.endsWith(".abc"));
+    assertFalse(shadow("abc", 0, 2).endsWith("bc"));
+  }
+
+  @Test
+  @DisplayName("symbol table")
+  void symbolTable() {
+    final SymbolTable symbols = new SymbolTable();
+    final String first = symbols.intern(shadow("x.key.y", 2, 5));
+
+    assertEquals("key", first);
+    assertSame(first, symbols.intern(shadow("key.z", 0, 3)));
+    assertSame(first, symbols.intern(new StringBuilder("key")));
+    assertEquals(1, symbols.size());
+  }
+}
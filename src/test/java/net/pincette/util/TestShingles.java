@@ -0,0 +1,140 @@
+package net.pincette.util;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toSet;
+import static net.pincette.util.Shingles.generate;
+import static net.pincette.util.Shingles.hashes;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestShingles {
+  private static final List<String> TITLES =
+      List.of(
+          "Apple iPhone 15 Pro Max 256GB Natural Titanium",
+          "Apple iPhone 15 Pro Max 256 GB Natural Titanium",
+          "Samsung Galaxy S24 Ultra 512GB Titanium Black",
+          "Sony WH-1000XM5 Wireless Noise Cancelling Headphones",
+          "Samsung Galaxy S24 Ultra 512 GB Titanium Black");
+
+  private static String text(final Random random, final int length) {
+    final StringBuilder builder = new StringBuilder(length);
+
+    for (int i = 0; i < length; ++i) {
+      builder.append("abcde ".charAt(random.nextInt(6)));
+    }
+
+    return builder.toString();
+  }
+
+  @Test
+  @DisplayName("hashes")
+  void testHashes() {
+    final String word = "abcabcd";
+
+    assertArrayEquals(
+        generate(word, 2, 4)
+            .mapToLong(s -> hashes(s, s.length()).findFirst().orElseThrow())
+            .toArray(),
+        hashes(word, 2, 4).toArray());
+    assertEquals(generate(word, 3).count(), hashes(word, 3).count());
+    assertEquals(0, hashes(word, 8).count());
+    assertEquals(0, hashes(word, 0).count());
+    assertEquals(
+        hashes("abc", 3).findFirst().orElseThrow(), hashes(word, 3).findFirst().orElseThrow());
+  }
+
+  @Test
+  @DisplayName("index")
+  void testIndex() {
+    final ShingleIndex index = new ShingleIndex(2, 3);
+
+    for (int i = TITLES.size() - 1; i >= 0; --i) {
+      index.add(i, TITLES.get(i).toLowerCase());
+    }
+
+    assertEquals(5, index.size());
+    assertArrayEquals(new int[] {0, 1, 2, 4}, index.search("titanium", 10));
+    assertArrayEquals(new int[] {0, 1}, index.search("titanium", 2));
+    assertArrayEquals(new int[] {0, 1}, index.search("iphone 15", 10));
+    assertArrayEquals(new int[] {3}, index.search("noise", 10));
+    assertArrayEquals(new int[0], index.search("nokia", 10));
+    assertArrayEquals(new int[0], index.search("n", 10));
+    assertEquals(
+        List.of(2, 4),
+        index.top("samsng galaxy", 2).stream().map(ShingleIndex.Match::id).sorted().toList());
+    assertEquals(3, index.top("wireles headphnes", 1).get(0).id());
+  }
+
+  @Test
+  @DisplayName("lsh")
+  void testLsh() {
+    final MinHash minHash = new MinHash(128, 42);
+    final long[][] signatures = minHash.signatures(TITLES, 3, 3);
+    final LshIndex index = new LshIndex(32, 4);
+
+    assertEquals(
+        MinHash.similarity(signatures[0], signatures[1]),
+        MinHash.similarity(
+            minHash.signature(TITLES.get(0), 3, 3), minHash.signature(TITLES.get(1), 3, 3)));
+    assertTrue(MinHash.similarity(signatures[0], signatures[1]) > 0.6);
+    assertTrue(MinHash.similarity(signatures[0], signatures[3]) < 0.2);
+
+    index.addAll(
+        new int[] {0, 1, 2, 3},
+        new long[][] {signatures[0], signatures[1], signatures[2], signatures[3]});
+    index.add(4, signatures[4]);
+
+    assertEquals(5, index.size());
+    assertArrayEquals(new int[] {0, 1}, index.similar(signatures[0], 0.6));
+    assertArrayEquals(new int[] {2, 4}, index.similar(signatures[4], 0.6));
+    assertArrayEquals(new int[] {3}, index.similar(signatures[3], 0.6));
+  }
+
+  @Test
+  @DisplayName("top")
+  void testTop() {
+    final Random random = new Random(3);
+    final ShingleIndex index = new ShingleIndex(2, 4);
+    final List<Set<Long>> documents = new ArrayList<>();
+
+    for (int i = 0; i < 500; ++i) {
+      final String text = text(random, 30);
+
+      index.add(i, text);
+      documents.add(hashes(text, 2, 4).boxed().collect(toSet()));
+    }
+
+    for (int i = 0; i < 50; ++i) {
+      final Set<Long> query = new HashSet<>();
+      final String text = text(random, 8);
+
+      hashes(text, 2, 4).forEach(query::add);
+
+      final List<ShingleIndex.Match> expected =
+          IntStream.range(0, documents.size())
+              .mapToObj(
+                  id ->
+                      new ShingleIndex.Match(
+                          id, (int) query.stream().filter(documents.get(id)::contains).count()))
+              .filter(m -> m.score() > 0)
+              .sorted(
+                  comparingInt(ShingleIndex.Match::score)
+                      .reversed()
+                      .thenComparingInt(ShingleIndex.Match::id))
+              .limit(5)
+              .toList();
+
+      assertEquals(expected, index.top(text, 5));
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package net.pincette.util;
+
+import static java.nio.channels.Channels.newChannel;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static net.pincette.io.StreamConnector.copy;
+import static net.pincette.util.Util.tryToDoRethrow;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import net.pincette.io.AsyncConnector;
+import net.pincette.io.ReaderWriterConnector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestStreamConnector {
+  private static byte[] data(final int size) {
+    final byte[] result = new byte[size];
+
+    new Random(0).nextBytes(result);
+
+    return result;
+  }
+
+  @Test
+  @DisplayName("copy files")
+  void files() throws IOException {
+    final byte[] data = data(300000);
+    final Path in = createTempFile("in", ".bin");
+    final Path out = createTempFile("out", ".bin");
+
+    try {
+      write(in, data);
+      copy(new FileInputStream(in.toFile()), new FileOutputStream(out.toFile()));
+      assertArrayEquals(data, readAllBytes(out));
+
+      try (FileChannel ch = FileChannel.open(out, StandardOpenOption.WRITE)) {
+        ch.truncate(0);
+        assertEquals(data.length, copy(newChannel(new ByteArrayInputStream(data)), ch));
+      }
+
+      assertArrayEquals(data, readAllBytes(out));
+
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      try (FileChannel ch = FileChannel.open(in)) {
+        assertEquals(data.length, copy(ch, newChannel(bytes)));
+      }
+
+      assertArrayEquals(data, bytes.toByteArray());
+    } finally {
+      delete(in);
+      delete(out);
+    }
+  }
+
+  @Test
+  @DisplayName("copy pipe")
+  void pipe() throws IOException, InterruptedException {
+    final byte[] data = data(300000);
+    final Path fifo = createTempFile("fifo", "");
+    final Path out = createTempFile("out", ".bin");
+
+    try {
+      delete(fifo);
+      assumeTrue(new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor() == 0);
+
+      final Thread writer =
+          Thread.ofVirtual()
+              .start(
+                  () ->
+                      tryToDoRethrow(
+                          () -> {
+                            try (FileOutputStream o = new FileOutputStream(fifo.toFile())) {
+                              o.write(data);
+                            }
+                          }));
+
+      copy(new FileInputStream(fifo.toFile()), new FileOutputStream(out.toFile()));
+      writer.join();
+      assertArrayEquals(data, readAllBytes(out));
+    } finally {
+      deleteIfExists(fifo);
+      delete(out);
+    }
+  }
+
+  @Test
+  @DisplayName("copy file without size")
+  void procFile() throws IOException {
+    final Path proc = Path.of("/proc/self/status");
+    final Path out = createTempFile("out", ".bin");
+
+    assumeTrue(exists(proc));
+
+    try {
+      copy(new FileInputStream(proc.toFile()), new FileOutputStream(out.toFile()));
+      assertTrue(new String(readAllBytes(out), UTF_8).startsWith("Name:"));
+
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      try (FileChannel ch = FileChannel.open(proc)) {
+        assertTrue(copy(ch, newChannel(bytes)) > 0);
+      }
+    } finally {
+      delete(out);
+    }
+  }
+
+  @Test
+  @DisplayName("copy flush")
+  void flush() throws IOException {
+    final byte[] data = data(300000);
+    final int[] flushes = new int[1];
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final OutputStream out =
+        new OutputStream() {
+          @Override
+          public void flush() {
+            ++flushes[0];
+          }
+
+          @Override
+          public void write(final int b) {
+            bytes.write(b);
+          }
+
+          @Override
+          public void write(final byte[] b, final int off, final int len) {
+            bytes.write(b, off, len);
+          }
+        };
+
+    copy(new FilterInputStream(new ByteArrayInputStream(data)) {}, out, true, false);
+    assertArrayEquals(data, bytes.toByteArray());
+    assertEquals(1, flushes[0]);
+    copy(new ByteArrayInputStream(data), out, true, false, true);
+    assertEquals(7, flushes[0]);
+  }
+
+  @Test
+  @DisplayName("async copy")
+  void async() throws IOException {
+    final byte[] data = data(1000000);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final long[] reported = new long[1];
+    final Path in = createTempFile("in", ".bin");
+    final Path out = createTempFile("out", ".bin");
+    final StringWriter writer = new StringWriter();
+
+    assertEquals(
+        data.length,
+        AsyncConnector.copy(
+                new ByteArrayInputStream(data),
+                bytes,
+                (transferred, perSecond, done) -> reported[0] = done ? transferred : -1)
+            .toCompletableFuture()
+            .join());
+    assertArrayEquals(data, bytes.toByteArray());
+    assertEquals(data.length, reported[0]);
+    assertEquals(
+        200000,
+        AsyncConnector.copy(new StringReader("a".repeat(200000)), writer)
+            .toCompletableFuture()
+            .join());
+    assertEquals("a".repeat(200000), writer.toString());
+
+    try {
+      write(in, data);
+      assertEquals(
+          data.length,
+          AsyncConnector.copy(
+                  in, out, (transferred, perSecond, done) -> reported[0] = done ? transferred : -1)
+              .toCompletableFuture()
+              .join());
+      assertArrayEquals(data, readAllBytes(out));
+      assertEquals(data.length, reported[0]);
+      delete(out);
+      assertEquals(data.length, AsyncConnector.copy(in, out).toCompletableFuture().join());
+      assertArrayEquals(data, readAllBytes(out));
+    } finally {
+      delete(in);
+      delete(out);
+    }
+  }
+
+  @Test
+  @DisplayName("async copy close failure")
+  void asyncCloseFailure() {
+    final boolean[] done = new boolean[1];
+    final OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void flush() throws IOException {
+            throw new IOException("flush");
+          }
+
+          @Override
+          public void write(final int b) {
+            // Discard.
+          }
+        };
+    final CompletableFuture<Long> copy =
+        AsyncConnector.copy(
+                new ByteArrayInputStream(data(1000)),
+                failing,
+                (transferred, perSecond, d) -> done[0] |= d)
+            .toCompletableFuture();
+
+    assertThrows(CompletionException.class, copy::join);
+    assertFalse(done[0]);
+  }
+
+  @Test
+  @DisplayName("async copy cancel")
+  void asyncCancel() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final InputStream endless =
+        new InputStream() {
+          @Override
+          public int read() {
+            return 0;
+          }
+
+          @Override
+          public int read(final byte[] b, final int off, final int len) {
+            started.countDown();
+
+            return len;
+          }
+        };
+    final CompletableFuture<Long> copy =
+        AsyncConnector.copy(endless, OutputStream.nullOutputStream()).toCompletableFuture();
+
+    started.await();
+    assertTrue(copy.cancel(true));
+    assertThrows(CancellationException.class, copy::join);
+  }
+
+  @Test
+  @DisplayName("transcode")
+  void transcode() throws IOException {
+    final String[] texts = {
+      "plain ascii ".repeat(10000),
+      "ascii first ".repeat(6000) + "caf\u00e9 na\u00efve \u00fcber ".repeat(5000),
+      "\ud83d\ude00 emoji and \u20ac".repeat(10000)
+    };
+
+    for (String text : texts) {
+      for (Charset from : new Charset[] {UTF_16, UTF_8}) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(
+            text.getBytes(UTF_8).length,
+            ReaderWriterConnector.transcode(
+                new ByteArrayInputStream(text.getBytes(from)), from, out, UTF_8));
+        assertEquals(text, out.toString(UTF_8));
+      }
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ReaderWriterConnector.transcode(
+        new ByteArrayInputStream(texts[1].getBytes(ISO_8859_1)), ISO_8859_1, out, UTF_8);
+    assertEquals(texts[1], out.toString(UTF_8));
+  }
+}
@@ -1,10 +1,12 @@
 package net.pincette.util;
 
+import static java.util.Arrays.asList;
 import static net.pincette.util.Collections.list;
 import static net.pincette.util.StreamUtil.rangeExclusive;
 import static net.pincette.util.StreamUtil.zip;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -61,6 +63,12 @@ class TestStreamUtil {
         StreamUtil.slide(list(0, 1, 2, 3).stream(), 3).toList());
     assertEquals(list(), StreamUtil.slide(list(0).stream(), 2).toList());
     assertEquals(list(list(0, 1)), StreamUtil.slide(list(0, 1).stream(), 2).toList());
+    assertEquals(
+        list(asList(0, null), asList(null, 2)),
+        StreamUtil.slide(Stream.of(0, null, 2), 2).toList());
+    assertEquals(
+        rangeExclusive(0, 8).map(i -> list(i, i + 1, i + 2)).toList(),
+        StreamUtil.slide(rangeExclusive(0, 10), 3).toList());
   }
 
   @Test
@@ -0,0 +1,39 @@
+package net.pincette.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.pincette.util.Util.replaceParameters;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestTemplate {
+  private static final Map<String, String> PARAMETERS = Map.of("a", "1", "b-c", "2");
+
+  @Test
+  @DisplayName("render")
+  void render() throws IOException {
+    final Template template = Template.compile("x ${a} y ${b-c}${d:def}${e} é");
+    final ByteBuffer buffer = ByteBuffer.allocate(100);
+
+    assertEquals("x 1 y 2def é", template.render(PARAMETERS));
+    assertEquals("x 1 y 2def é", template.render(PARAMETERS::get, new StringWriter()).toString());
+    template.render(PARAMETERS::get, buffer).flip();
+    assertEquals("x 1 y 2def é", UTF_8.decode(buffer).toString());
+  }
+
+  @Test
+  @DisplayName("syntax")
+  void syntax() {
+    assertEquals(
+        "$ ${} ${a b} ${a:} $a", Template.compile("$ ${} ${a b} ${a:} $a").render(PARAMETERS));
+    assertEquals("$$1", Template.compile("$$${a}").render(PARAMETERS));
+    assertEquals("${a} 2", replaceParameters("${a} ${b-c}", PARAMETERS, Set.of("a")));
+    assertEquals("1 2", replaceParameters("$(a) $(b-c)", PARAMETERS, '(', ')'));
+  }
+}
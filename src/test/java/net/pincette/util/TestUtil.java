@@ -7,10 +7,12 @@ import static java.util.regex.Pattern.compile;
 import static net.pincette.util.Collections.list;
 import static net.pincette.util.ShadowString.shadow;
 import static net.pincette.util.Util.tryToGetForever;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import net.pincette.util.Util.GeneralException;
 import org.junit.jupiter.api.DisplayName;
@@ -128,6 +130,29 @@ class TestUtil {
     assertEquals(list(shadow("")), Util.segments("#", compile("#")).toList());
   }
 
+  @Test
+  @DisplayName("segmentCursor")
+  void segmentCursor() {
+    final SegmentCursor cursor = new SegmentCursor("a::bc::::d", "::");
+    final List<String> segments = new ArrayList<>();
+    final IntArrayList offsets = new IntArrayList();
+
+    while (cursor.next()) {
+      segments.add(cursor.toString());
+    }
+
+    assertEquals(list("a", "bc", "", "d"), segments);
+    assertTrue(cursor.reset("xy::z").next());
+    assertTrue(cursor.contentEquals("xy"));
+    assertEquals(2, SegmentCursor.offsets("#ab##c", "#", offsets));
+    assertEquals(IntArrayList.of(1, 3, 5, 6), offsets);
+    assertEquals(0, Util.split("", "#").length);
+    assertArrayEquals(new String[] {"a", "b"}, Util.split("#a##b#", "#"));
+    assertArrayEquals(new String[] {"a", "bc", "d"}, Util.split("/a//bc/d", compile("/+")));
+    assertArrayEquals(new String[] {"abc"}, Util.split("abc", compile("/")));
+    assertEquals(list("a", "b"), Util.getSegments("a.b.", compile("\\.")).toList());
+  }
+
   @Test
   @DisplayName("tryToGetForever1")
   void tryToGetForever1() {